@@ -0,0 +1,21 @@
+package ru.otus.hw.benchmarks;
+
+import org.springframework.context.ApplicationContext;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.repositories.BookRepository;
+
+import java.util.Optional;
+
+// hw06: книга с автором и жанрами по графу сущности, без комментариев
+class BookFinder {
+
+    private final BookRepository bookRepository;
+
+    BookFinder(ApplicationContext context) {
+        bookRepository = context.getBean(BookRepository.class);
+    }
+
+    Optional<Book> findById(long id) {
+        return bookRepository.findById(id);
+    }
+}
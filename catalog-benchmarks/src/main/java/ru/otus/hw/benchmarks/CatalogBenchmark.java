@@ -0,0 +1,214 @@
+package ru.otus.hw.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.otus.hw.Application;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.services.BookService;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Одни и те же операции на одинаковом наборе данных для модуля каталога, выбранного профилем
+// maven (hw05 JDBC, hw06 JPA, hw07 Spring Data JPA). findById читает книгу с автором и жанрами
+// через репозиторий (BookFinder), потому что BookService в hw06 и hw07 загружает еще и комментарии,
+// которых в hw05 нет. Остальные операции идут через BookService. Throughput - пропускная способность,
+// SampleTime - распределение задержек с перцентилями, -prof gc - выделение памяти на операцию
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmark {
+
+    private static final int AUTHORS_COUNT = 100;
+
+    private static final int GENRES_COUNT = 30;
+
+    // Шаг обхода книг взаимно прост с их числом, поэтому подряд читаются несоседние строки
+    private static final int BOOK_STRIDE = 7919;
+
+    @Param({"100", "1000", "10000"})
+    private int booksCount;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService bookService;
+
+    private BookFinder bookFinder;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private JdbcTemplate jdbc;
+
+    private long[] bookIds;
+
+    private long[] authorIds;
+
+    private long[] genreIds;
+
+    private final List<Long> insertedBookIds = new ArrayList<>();
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:catalog_bench",
+                        "--spring.shell.interactive.enabled=false",
+                        "--spring.shell.noninteractive.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=WARN");
+        bookService = context.getBean(BookService.class);
+        bookFinder = new BookFinder(context);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        jdbc = context.getBean(JdbcTemplate.class);
+        seed();
+        bookIds = ids("select id from books order by id");
+        authorIds = ids("select id from authors order by id");
+        genreIds = ids("select id from genres order by id");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Вставленные книги удаляются после каждой итерации, чтобы размер таблицы оставался равным booksCount
+    @TearDown(Level.Iteration)
+    public void removeInsertedBooks() {
+        insertedBookIds.forEach(bookService::deleteById);
+        insertedBookIds.clear();
+    }
+
+    @Benchmark
+    public void findById(Blackhole blackhole) {
+        long id = nextBookId();
+        readOnlyTransaction.executeWithoutResult(status ->
+                bookFinder.findById(id).ifPresent(book -> consume(book, blackhole)));
+    }
+
+    @Benchmark
+    public void findAll(Blackhole blackhole) {
+        bookService.findAll().forEach(book -> consume(book, blackhole));
+    }
+
+    @Benchmark
+    public Book insert() {
+        int step = nextStep();
+        Book book = bookService.insert("BenchTitle_" + step, authorIds[step % authorIds.length], nextGenreIds(step));
+        insertedBookIds.add(book.getId());
+        return book;
+    }
+
+    @Benchmark
+    public Book update() {
+        int step = nextStep();
+        return bookService.update(bookIds[step % bookIds.length], "BenchTitle_" + step,
+                authorIds[step % authorIds.length], nextGenreIds(step));
+    }
+
+    @Benchmark
+    public void delete(DeletedBook deletedBook) {
+        bookService.deleteById(deletedBook.id);
+    }
+
+    // Книга для удаления вставляется SQL запросом перед каждым вызовом, вне измерения
+    @State(Scope.Thread)
+    public static class DeletedBook {
+
+        private long id;
+
+        @Setup(Level.Invocation)
+        public void insert(CatalogBenchmark benchmark) {
+            var keyHolder = new GeneratedKeyHolder();
+            benchmark.jdbc.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "insert into books(title, author_id) values ('Deleted', ?)", Statement.RETURN_GENERATED_KEYS);
+                statement.setLong(1, benchmark.authorIds[0]);
+                return statement;
+            }, keyHolder);
+            id = Objects.requireNonNull(keyHolder.getKey()).longValue();
+            benchmark.jdbc.update("insert into books_genres(book_id, genre_id) values (?, ?), (?, ?)",
+                    id, benchmark.genreIds[0], id, benchmark.genreIds[1]);
+        }
+    }
+
+    // Id не задаются явно: строки получают их так же, как в приложении (identity или последовательность).
+    // Каждой книге достаются автор и два разных жанра по остатку от деления ее номера
+    private void seed() {
+        jdbc.execute("insert into authors(full_name) select 'Author_' || x from system_range(4, "
+                + AUTHORS_COUNT + ")");
+        jdbc.execute("insert into genres(name) select 'Genre_' || x from system_range(7, " + GENRES_COUNT + ")");
+        jdbc.execute("insert into books(title, author_id) "
+                + "select 'BookTitle_' || r.x, a.id from system_range(4, " + booksCount + ") r "
+                + "join (select id, row_number() over (order by id) - 1 as rn from authors) a "
+                + "on a.rn = mod(r.x, " + AUTHORS_COUNT + ")");
+        jdbc.execute("insert into books_genres(book_id, genre_id) "
+                + "select b.id, g.id from (select id, row_number() over (order by id) as rn from books) b "
+                + "join (select id, row_number() over (order by id) - 1 as rn from genres) g "
+                + "on g.rn = mod(b.rn, " + GENRES_COUNT + ") or g.rn = mod(b.rn + 7, " + GENRES_COUNT + ") "
+                + "where b.rn > 3");
+    }
+
+    private long[] ids(String sql) {
+        return jdbc.queryForList(sql, Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long nextBookId() {
+        return bookIds[nextStep() % bookIds.length];
+    }
+
+    private int nextStep() {
+        cursor = (cursor + BOOK_STRIDE) & Integer.MAX_VALUE;
+        return cursor;
+    }
+
+    private Set<Long> nextGenreIds(int step) {
+        return Set.of(genreIds[step % genreIds.length], genreIds[(step + 1) % genreIds.length]);
+    }
+
+    private static void consume(Book book, Blackhole blackhole) {
+        blackhole.consume(book.getTitle());
+        blackhole.consume(book.getAuthor().getFullName());
+        book.getGenres().forEach(genre -> blackhole.consume(genre.getName()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CatalogBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
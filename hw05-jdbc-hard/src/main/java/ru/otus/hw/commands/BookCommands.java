@@ -1,11 +1,24 @@
 package ru.otus.hw.commands;
 
 import lombok.RequiredArgsConstructor;
+import org.jline.terminal.Terminal;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
 import ru.otus.hw.converters.BookConverter;
+import ru.otus.hw.converters.BookCsvConverter;
+import ru.otus.hw.dto.BookCreateDto;
+import ru.otus.hw.dto.ExportFormat;
+import ru.otus.hw.dto.ExportProgress;
+import ru.otus.hw.services.BookExportService;
 import ru.otus.hw.services.BookService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -16,8 +29,16 @@ public class BookCommands {
 
     private final BookService bookService;
 
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
     private final BookConverter bookConverter;
 
+    private final BookCsvConverter bookCsvConverter;
+
+    private final BookExportService bookExportService;
+
+    private final Terminal terminal;
+
     @ShellMethod(value = "Find all books", key = "ab")
     public String findAllBooks() {
         return bookService.findAll().stream()
@@ -25,6 +46,43 @@ public class BookCommands {
                 .collect(Collectors.joining("," + System.lineSeparator()));
     }
 
+    // Печатает книги по мере чтения, не собирая весь каталог в одну строку
+    @ShellMethod(value = "Stream all books", key = "abs")
+    public void streamAllBooks() {
+        var writer = terminal.writer();
+        try (var books = bookService.streamAll()) {
+            books.map(bookConverter::bookToString).forEach(writer::println);
+        }
+        writer.flush();
+    }
+
+    // abp 0 10, затем abp <id последней книги> 10
+    @ShellMethod(value = "Find page of books after given id", key = "abp")
+    public String findBooksPage(@ShellOption(defaultValue = "0") long afterId,
+                                @ShellOption(defaultValue = "10") int limit) {
+        var books = bookService.findPage(afterId, limit);
+        if (books.isEmpty()) {
+            return "No books after id %d".formatted(afterId);
+        }
+        var page = books.stream()
+                .map(bookConverter::bookToString)
+                .collect(Collectors.joining("," + System.lineSeparator()));
+        var lastId = books.get(books.size() - 1).getId();
+        return page + System.lineSeparator() + "Next page: abp %d %d".formatted(lastId, limit);
+    }
+
+    // Поиск без учета регистра по фрагменту названия: bttl gats 20
+    @ShellMethod(value = "Find books by title fragment", key = "bttl")
+    public String findBooksByTitle(String fragment, @ShellOption(defaultValue = "20") int limit) {
+        var books = bookService.findByTitle(fragment, limit);
+        if (books.isEmpty()) {
+            return "No books with title containing '%s'".formatted(fragment);
+        }
+        return books.stream()
+                .map(bookConverter::bookToString)
+                .collect(Collectors.joining("," + System.lineSeparator()));
+    }
+
     @ShellMethod(value = "Find book by id", key = "bbid")
     public String findBookById(long id) {
         return bookService.findById(id)
@@ -39,6 +97,43 @@ public class BookCommands {
         return bookConverter.bookToString(savedBook);
     }
 
+    // Файл со строками вида title;authorId;genreId1,genreId2; пустые строки и строки с # пропускаются
+    // bimp books.csv
+    @ShellMethod(value = "Bulk insert books from csv file", key = "bimp")
+    public String importBooks(String path) {
+        long inserted = 0;
+        List<BookCreateDto> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        try (var lines = Files.lines(Path.of(path))) {
+            var iterator = lines.map(String::strip)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .iterator();
+            while (iterator.hasNext()) {
+                chunk.add(bookCsvConverter.csvLineToBook(iterator.next()));
+                if (chunk.size() == IMPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    inserted += bookService.insertAll(chunk).size();
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return "Inserted %d books".formatted(inserted);
+    }
+
+    // bexp books.jsonl JSONL
+    @ShellMethod(value = "Export all books to file", key = "bexp")
+    public String exportBooks(String path, @ShellOption(defaultValue = "CSV") ExportFormat format) {
+        var writer = terminal.writer();
+        var report = bookExportService.export(Path.of(path), format, progress -> {
+            if (progress.chunksDone() * 10 / progress.chunksTotal()
+                    != (progress.chunksDone() - 1) * 10 / progress.chunksTotal()) {
+                writer.println(exportProgressToString(progress));
+                writer.flush();
+            }
+        });
+        return "Exported to %s: %s".formatted(path, exportProgressToString(report));
+    }
+
     // bupd 4 editedBook 3 2,5
     @ShellMethod(value = "Update book", key = "bupd")
     public String updateBook(long id, String title, long authorId, Set<Long> genresIds) {
@@ -51,4 +146,22 @@ public class BookCommands {
     public void deleteBook(long id) {
         bookService.deleteById(id);
     }
+
+    // bdels 4,5,6
+    @ShellMethod(value = "Delete books by ids", key = "bdels")
+    public String deleteBooks(Set<Long> ids) {
+        return "Deleted %d books".formatted(bookService.deleteAllByIds(ids));
+    }
+
+    // bdela 2
+    @ShellMethod(value = "Delete all books of author", key = "bdela")
+    public String deleteBooksByAuthor(long authorId) {
+        return "Deleted %d books of author with id %d".formatted(bookService.deleteByAuthorId(authorId), authorId);
+    }
+
+    private static String exportProgressToString(ExportProgress progress) {
+        return "chunks %d/%d, rows %d, %.2f MB, %.0f rows/s, %.2f MB/s".formatted(
+                progress.chunksDone(), progress.chunksTotal(), progress.rows(), progress.bytes() / 1024.0 / 1024.0,
+                progress.rowsPerSecond(), progress.megabytesPerSecond());
+    }
 }
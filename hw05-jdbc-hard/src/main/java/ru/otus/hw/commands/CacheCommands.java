@@ -0,0 +1,31 @@
+package ru.otus.hw.commands;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import ru.otus.hw.services.CacheService;
+
+import java.util.stream.Collectors;
+
+@SuppressWarnings({"SpellCheckingInspection", "unused"})
+@RequiredArgsConstructor
+@ShellComponent
+public class CacheCommands {
+
+    private final CacheService cacheService;
+
+    @ShellMethod(value = "Show authors and genres cache statistics", key = "cst")
+    public String showCacheStats() {
+        return cacheService.findAllStats().stream()
+                .map(stats -> "%s: size %d/%d, hits %d, misses %d, evictions %d, hit ratio %.2f".formatted(
+                        stats.name(), stats.size(), stats.maxSize(), stats.hits(), stats.misses(),
+                        stats.evictions(), stats.hitRatio()))
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    @ShellMethod(value = "Invalidate authors and genres caches", key = "ccl")
+    public String invalidateCaches() {
+        cacheService.invalidateAll();
+        return "Caches invalidated";
+    }
+}
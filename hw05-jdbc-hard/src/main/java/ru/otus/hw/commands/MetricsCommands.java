@@ -0,0 +1,45 @@
+package ru.otus.hw.commands;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import ru.otus.hw.metrics.ConnectionPoolMetrics;
+import ru.otus.hw.metrics.OperationStats;
+import ru.otus.hw.metrics.RepositoryMetrics;
+
+import java.util.stream.Collectors;
+
+@SuppressWarnings({"SpellCheckingInspection", "unused"})
+@RequiredArgsConstructor
+@ShellComponent
+public class MetricsCommands {
+
+    private final RepositoryMetrics repositoryMetrics;
+
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+
+    @ShellMethod(value = "Show repository operations latency, rows and statements", key = "rst")
+    public String showRepositoryStats() {
+        var operations = repositoryMetrics.snapshots().stream()
+                .map(MetricsCommands::operationToString)
+                .collect(Collectors.joining(System.lineSeparator()));
+        var pool = connectionPoolMetrics.snapshot()
+                .map(snapshot -> "%s: active %d, idle %d, total %d/%d, awaiting %d".formatted(snapshot.poolName(),
+                        snapshot.active(), snapshot.idle(), snapshot.total(), snapshot.maximum(), snapshot.awaiting()))
+                .orElse("Connection pool statistics are not available");
+        return operations.isEmpty() ? pool : operations + System.lineSeparator() + pool;
+    }
+
+    @ShellMethod(value = "Reset repository operations statistics", key = "rsr")
+    public String resetRepositoryStats() {
+        repositoryMetrics.reset();
+        return "Repository statistics reset";
+    }
+
+    private static String operationToString(OperationStats.Snapshot stats) {
+        return "%s: calls %d, errors %d, p50 %d us, p95 %d us, p99 %d us, avg %d us, rows %d, statements %d"
+                .formatted(stats.name(), stats.calls(), stats.errors(), stats.p50Micros(), stats.p95Micros(),
+                        stats.p99Micros(), stats.calls() == 0 ? 0 : stats.totalMicros() / stats.calls(),
+                        stats.rows(), stats.statements());
+    }
+}
@@ -0,0 +1,33 @@
+package ru.otus.hw.converters;
+
+import org.springframework.stereotype.Component;
+import ru.otus.hw.dto.BookCreateDto;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// Строка CSV вида: title;authorId;genreId1,genreId2
+@Component
+public class BookCsvConverter {
+    private static final String FIELDS_SEPARATOR = ";";
+
+    private static final String GENRES_SEPARATOR = ",";
+
+    public BookCreateDto csvLineToBook(String line) {
+        var fields = line.split(FIELDS_SEPARATOR, -1);
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Expected 'title;authorId;genresIds' but was '%s'".formatted(line));
+        }
+        try {
+            var authorId = Long.parseLong(fields[1].trim());
+            var genresIds = Arrays.stream(fields[2].split(GENRES_SEPARATOR))
+                    .map(String::trim)
+                    .filter(id -> !id.isEmpty())
+                    .map(Long::valueOf)
+                    .collect(Collectors.toSet());
+            return new BookCreateDto(fields[0].trim(), authorId, genresIds);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid ids in line '%s'".formatted(line), e);
+        }
+    }
+}
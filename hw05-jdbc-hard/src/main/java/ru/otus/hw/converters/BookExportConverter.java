@@ -0,0 +1,100 @@
+package ru.otus.hw.converters;
+
+import org.springframework.stereotype.Component;
+import ru.otus.hw.dto.ExportFormat;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
+
+// Строки выгрузки каталога: CSV (id;title;authorId;authorFullName;genreIds) или JSON Lines
+@Component
+public class BookExportConverter {
+
+    public void appendBook(StringBuilder target, Book book, ExportFormat format) {
+        switch (format) {
+            case CSV -> appendCsv(target, book);
+            case JSONL -> appendJson(target, book);
+            default -> throw new IllegalArgumentException("Unsupported export format " + format);
+        }
+        target.append('\n');
+    }
+
+    private void appendCsv(StringBuilder target, Book book) {
+        target.append(book.getId()).append(';');
+        appendCsvValue(target, book.getTitle());
+        target.append(';').append(book.getAuthor().getId()).append(';');
+        appendCsvValue(target, book.getAuthor().getFullName());
+        target.append(';');
+        for (int i = 0; i < book.getGenres().size(); i++) {
+            if (i > 0) {
+                target.append(',');
+            }
+            target.append(book.getGenres().get(i).getId());
+        }
+    }
+
+    private void appendJson(StringBuilder target, Book book) {
+        target.append("{\"id\":").append(book.getId()).append(",\"title\":");
+        appendJsonString(target, book.getTitle());
+        target.append(",\"author\":{\"id\":").append(book.getAuthor().getId()).append(",\"fullName\":");
+        appendJsonString(target, book.getAuthor().getFullName());
+        target.append("},\"genres\":[");
+        for (int i = 0; i < book.getGenres().size(); i++) {
+            Genre genre = book.getGenres().get(i);
+            if (i > 0) {
+                target.append(',');
+            }
+            target.append("{\"id\":").append(genre.getId()).append(",\"name\":");
+            appendJsonString(target, genre.getName());
+            target.append('}');
+        }
+        target.append("]}");
+    }
+
+    private static void appendCsvValue(StringBuilder target, String value) {
+        if (value == null) {
+            return;
+        }
+        if (!needsCsvQuotes(value)) {
+            target.append(value);
+            return;
+        }
+        target.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    // Разделитель, кавычка и любые управляющие символы (переводы строк, табуляция) допустимы только в кавычках
+    private static boolean needsCsvQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ';' || c == '"' || c < 0x20) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void appendJsonString(StringBuilder target, String value) {
+        if (value == null) {
+            target.append("null");
+            return;
+        }
+        target.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> target.append("\\\"");
+                case '\\' -> target.append("\\\\");
+                case '\n' -> target.append("\\n");
+                case '\r' -> target.append("\\r");
+                case '\t' -> target.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        target.append("\\u%04x".formatted((int) c));
+                    } else {
+                        target.append(c);
+                    }
+                }
+            }
+        }
+        target.append('"');
+    }
+}
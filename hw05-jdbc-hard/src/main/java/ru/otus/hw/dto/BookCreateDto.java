@@ -0,0 +1,18 @@
+package ru.otus.hw.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookCreateDto {
+    private String title;
+
+    private long authorId;
+
+    private Set<Long> genresIds;
+}
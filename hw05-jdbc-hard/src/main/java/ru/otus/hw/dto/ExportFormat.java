@@ -0,0 +1,6 @@
+package ru.otus.hw.dto;
+
+public enum ExportFormat {
+    CSV,
+    JSONL
+}
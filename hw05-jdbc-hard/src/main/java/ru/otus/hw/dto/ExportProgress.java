@@ -0,0 +1,20 @@
+package ru.otus.hw.dto;
+
+import java.time.Duration;
+
+public record ExportProgress(int chunksDone, int chunksTotal, long rows, long bytes, Duration elapsed) {
+
+    private static final double BYTES_IN_MEGABYTE = 1024 * 1024;
+
+    public double rowsPerSecond() {
+        return rows / seconds();
+    }
+
+    public double megabytesPerSecond() {
+        return bytes / BYTES_IN_MEGABYTE / seconds();
+    }
+
+    private double seconds() {
+        return Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.otus.hw.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class ConnectionPoolMetrics {
+
+    private final DataSource dataSource;
+
+    public Optional<Snapshot> snapshot() {
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return Optional.empty();
+            }
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            var pool = hikari.getHikariPoolMXBean();
+            if (pool == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new Snapshot(hikari.getPoolName(), pool.getActiveConnections(),
+                    pool.getIdleConnections(), pool.getTotalConnections(), hikari.getMaximumPoolSize(),
+                    pool.getThreadsAwaitingConnection()));
+        } catch (SQLException e) {
+            return Optional.empty();
+        }
+    }
+
+    public record Snapshot(String poolName, int active, int idle, int total, int maximum, int awaiting) {
+    }
+}
@@ -0,0 +1,44 @@
+package ru.otus.hw.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class OperationStats {
+
+    private final String name;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder rows = new LongAdder();
+
+    private final LongAdder statements = new LongAdder();
+
+    private final LongAdder totalMicros = new LongAdder();
+
+    public OperationStats(String name) {
+        this.name = name;
+    }
+
+    void record(long micros, long rowsCount, long statementsCount, boolean failed) {
+        latency.record(micros);
+        calls.increment();
+        totalMicros.add(micros);
+        rows.add(rowsCount);
+        statements.add(statementsCount);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(name, calls.sum(), errors.sum(), rows.sum(), statements.sum(), totalMicros.sum(),
+                latency.percentile(50), latency.percentile(95), latency.percentile(99));
+    }
+
+    public record Snapshot(String name, long calls, long errors, long rows, long statements, long totalMicros,
+                           long p50Micros, long p95Micros, long p99Micros) {
+    }
+}
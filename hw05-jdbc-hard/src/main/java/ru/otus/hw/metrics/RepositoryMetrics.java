@@ -0,0 +1,40 @@
+package ru.otus.hw.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class RepositoryMetrics {
+
+    // Счетчик выполненных на потоке SQL-запросов; операция берет разницу значений до и после вызова
+    private static final ThreadLocal<long[]> STATEMENTS_ON_THREAD = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+    static void statementExecuted() {
+        STATEMENTS_ON_THREAD.get()[0]++;
+    }
+
+    static long statementsOnThread() {
+        return STATEMENTS_ON_THREAD.get()[0];
+    }
+
+    void record(String operation, long micros, long rows, long statements, boolean failed) {
+        operations.computeIfAbsent(operation, OperationStats::new).record(micros, rows, statements, failed);
+    }
+
+    public List<OperationStats.Snapshot> snapshots() {
+        return operations.values().stream()
+                .map(OperationStats::snapshot)
+                .sorted(Comparator.comparing(OperationStats.Snapshot::name))
+                .toList();
+    }
+
+    public void reset() {
+        operations.clear();
+    }
+}
@@ -0,0 +1,69 @@
+package ru.otus.hw.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Время, число возвращенных строк и число SQL-запросов для каждого метода репозиториев.
+// Для Stream замер завершается при закрытии потока
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final RepositoryMetrics repositoryMetrics;
+
+    @Around("execution(* ru.otus.hw.repositories.BookRepository.*(..))"
+            + " || execution(* ru.otus.hw.repositories.AuthorRepository.*(..))"
+            + " || execution(* ru.otus.hw.repositories.GenreRepository.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getTarget().getClass().getSimpleName() + "."
+                + joinPoint.getSignature().getName();
+        long startedAt = System.nanoTime();
+        long statementsBefore = RepositoryMetrics.statementsOnThread();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            record(operation, startedAt, 0, statementsBefore, true);
+            throw e;
+        }
+
+        if (result instanceof Stream<?> stream) {
+            long statements = RepositoryMetrics.statementsOnThread() - statementsBefore;
+            AtomicLong rows = new AtomicLong();
+            return stream.peek(item -> rows.incrementAndGet())
+                    .onClose(() -> repositoryMetrics.record(operation, microsSince(startedAt), rows.get(),
+                            statements, false));
+        }
+        record(operation, startedAt, rowsOf(result), statementsBefore, false);
+        return result;
+    }
+
+    private void record(String operation, long startedAt, long rows, long statementsBefore, boolean failed) {
+        long statements = RepositoryMetrics.statementsOnThread() - statementsBefore;
+        repositoryMetrics.record(operation, microsSince(startedAt), rows, statements, failed);
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return result == null ? 0 : 1;
+    }
+
+    private static long microsSince(long startedAt) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt);
+    }
+}
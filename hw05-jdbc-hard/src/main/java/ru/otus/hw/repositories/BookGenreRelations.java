@@ -0,0 +1,159 @@
+package ru.otus.hw.repositories;
+
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Связи книга-жанр в виде отсортированных пар long[], без упаковки в Long и промежуточных коллекций
+final class BookGenreRelations {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] bookIds;
+
+    private long[] genreIds;
+
+    private int size;
+
+    private boolean sorted = true;
+
+    BookGenreRelations() {
+        this(INITIAL_CAPACITY);
+    }
+
+    BookGenreRelations(int expectedSize) {
+        int capacity = Math.max(expectedSize, 1);
+        this.bookIds = new long[capacity];
+        this.genreIds = new long[capacity];
+    }
+
+    void add(long bookId, long genreId) {
+        if (size == bookIds.length) {
+            int newCapacity = size + (size >> 1) + 1;
+            bookIds = Arrays.copyOf(bookIds, newCapacity);
+            genreIds = Arrays.copyOf(genreIds, newCapacity);
+        }
+        if (size > 0 && compare(bookId, genreId, size - 1) < 0) {
+            sorted = false;
+        }
+        bookIds[size] = bookId;
+        genreIds[size] = genreId;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void mergeInto(List<Book> books, List<Genre> genres) {
+        sortIfNeeded();
+        GenreIndex genreIndex = new GenreIndex(genres);
+
+        for (Book book : books) {
+            int from = lowerBound(book.getId());
+            int to = from;
+            while (to < size && bookIds[to] == book.getId()) {
+                to++;
+            }
+
+            List<Genre> bookGenres = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                bookGenres.add(genreIndex.get(genreIds[i]));
+            }
+            book.setGenres(bookGenres);
+        }
+    }
+
+    private int lowerBound(long bookId) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bookIds[mid] < bookId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compare(long bookId, long genreId, int index) {
+        int byBook = Long.compare(bookId, bookIds[index]);
+        return byBook != 0 ? byBook : Long.compare(genreId, genreIds[index]);
+    }
+
+    private void sortIfNeeded() {
+        if (sorted) {
+            return;
+        }
+        // Порядок задается по индексам, затем обе колонки переставляются согласованно
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        quickSort(order, 0, size - 1);
+
+        long[] sortedBookIds = new long[size];
+        long[] sortedGenreIds = new long[size];
+        for (int i = 0; i < size; i++) {
+            sortedBookIds[i] = bookIds[order[i]];
+            sortedGenreIds[i] = genreIds[order[i]];
+        }
+        bookIds = sortedBookIds;
+        genreIds = sortedGenreIds;
+        sorted = true;
+    }
+
+    private void quickSort(int[] indexes, int low, int high) {
+        while (low < high) {
+            int pivot = indexes[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(bookIds[indexes[i]], genreIds[indexes[i]], pivot) < 0) {
+                    i++;
+                }
+                while (compare(bookIds[indexes[j]], genreIds[indexes[j]], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = indexes[i];
+                    indexes[i++] = indexes[j];
+                    indexes[j--] = tmp;
+                }
+            }
+            if (j - low < high - i) {
+                quickSort(indexes, low, j);
+                low = i;
+            } else {
+                quickSort(indexes, i, high);
+                high = j;
+            }
+        }
+    }
+
+    private static final class GenreIndex {
+
+        private final long[] ids;
+
+        private final Genre[] genres;
+
+        GenreIndex(List<Genre> genres) {
+            this.genres = genres.toArray(new Genre[0]);
+            Arrays.sort(this.genres, (left, right) -> Long.compare(left.getId(), right.getId()));
+            this.ids = new long[this.genres.length];
+            for (int i = 0; i < this.genres.length; i++) {
+                ids[i] = this.genres[i].getId();
+            }
+        }
+
+        Genre get(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            return index >= 0 ? genres[index] : null;
+        }
+    }
+}
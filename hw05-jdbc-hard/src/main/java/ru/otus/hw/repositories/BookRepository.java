@@ -1,16 +1,35 @@
 package ru.otus.hw.repositories;
 
+import ru.otus.hw.dto.IdRange;
 import ru.otus.hw.models.Book;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookRepository {
     Optional<Book> findById(long id);
 
     List<Book> findAll();
 
+    Stream<Book> streamAll();
+
+    List<Book> findPage(long afterId, int limit);
+
+    List<Book> findAllByIdRange(long fromId, long toId);
+
+    Optional<IdRange> findIdRange();
+
+    List<Book> findAllByTitleContaining(String fragment, int limit);
+
     Book save(Book book);
 
+    List<Book> saveAll(Collection<Book> books);
+
     void deleteById(long id);
+
+    int deleteAllByIds(Collection<Long> ids);
+
+    int deleteByAuthorId(long authorId);
 }
@@ -0,0 +1,102 @@
+package ru.otus.hw.repositories;
+
+import ru.otus.hw.models.Author;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Locale;
+
+// Читает книги из строк запроса: индексы колонок определяются один раз на ResultSet,
+// а одинаковые авторы и жанры в пределах запроса представлены одним объектом
+final class BookRowReader {
+
+    private final LongKeyInterner<Author> authors = new LongKeyInterner<>();
+
+    private final LongKeyInterner<Genre> genres = new LongKeyInterner<>();
+
+    private ResultSet resolvedFor;
+
+    private int idColumn;
+
+    private int titleColumn;
+
+    private int authorIdColumn;
+
+    private int authorFullNameColumn;
+
+    private int genreIdColumn;
+
+    private int genreNameColumn;
+
+    long readBookId(ResultSet rs) throws SQLException {
+        resolveColumns(rs);
+        return rs.getLong(idColumn);
+    }
+
+    String readTitle(ResultSet rs) throws SQLException {
+        resolveColumns(rs);
+        return rs.getString(titleColumn);
+    }
+
+    Book readBook(ResultSet rs) throws SQLException {
+        resolveColumns(rs);
+        return new Book(rs.getLong(idColumn), rs.getString(titleColumn), readAuthor(rs), new ArrayList<>());
+    }
+
+    Author readAuthor(ResultSet rs) throws SQLException {
+        resolveColumns(rs);
+        long authorId = rs.getLong(authorIdColumn);
+        Author author = authors.get(authorId);
+        if (author == null) {
+            author = authors.put(authorId, new Author(authorId, rs.getString(authorFullNameColumn)));
+        }
+        return author;
+    }
+
+    Genre readGenreIfPresent(ResultSet rs) throws SQLException {
+        resolveColumns(rs);
+        if (genreIdColumn == 0) {
+            return null;
+        }
+        long genreId = rs.getLong(genreIdColumn);
+        if (rs.wasNull()) {
+            return null;
+        }
+        Genre genre = genres.get(genreId);
+        if (genre == null) {
+            genre = genres.put(genreId, new Genre(genreId, rs.getString(genreNameColumn)));
+        }
+        return genre;
+    }
+
+    private void resolveColumns(ResultSet rs) throws SQLException {
+        if (rs == resolvedFor) {
+            return;
+        }
+        idColumn = 0;
+        titleColumn = 0;
+        authorIdColumn = 0;
+        authorFullNameColumn = 0;
+        genreIdColumn = 0;
+        genreNameColumn = 0;
+
+        ResultSetMetaData metaData = rs.getMetaData();
+        for (int column = metaData.getColumnCount(); column >= 1; column--) {
+            switch (metaData.getColumnLabel(column).toLowerCase(Locale.ROOT)) {
+                case "id" -> idColumn = column;
+                case "title" -> titleColumn = column;
+                case "author_id" -> authorIdColumn = column;
+                case "full_name" -> authorFullNameColumn = column;
+                case "genre_id" -> genreIdColumn = column;
+                case "genre_name" -> genreNameColumn = column;
+                default -> {
+                }
+            }
+        }
+        resolvedFor = rs;
+    }
+}
@@ -0,0 +1,213 @@
+package ru.otus.hw.repositories;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Инвертированный индекс триграмм названий книг: триграмма -> отсортированный массив id книг.
+// Кандидаты из пересечения массивов проверяются по самому названию, поэтому результат
+// совпадает с LOWER(title) LIKE '%фрагмент%'. Фрагменты короче триграммы ищутся перебором названий в памяти
+final class BookTitleIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, IdList> postings = new HashMap<>();
+
+    private final Map<Long, String> titles = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean loaded;
+
+    // Первичное заполнение выполняется под блокировкой записи: изменения, зафиксированные во время чтения
+    // таблицы, применяются после него и не затираются прочитанными ранее значениями
+    void loadIfNeeded(Consumer<BookTitleIndex> loader) {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                loader.accept(this);
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void put(long bookId, String title) {
+        String normalized = normalize(title);
+        lock.writeLock().lock();
+        try {
+            String previous = titles.put(bookId, normalized);
+            if (normalized.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                for (long gram : gramsOf(previous)) {
+                    removePosting(gram, bookId);
+                }
+            }
+            for (long gram : gramsOf(normalized)) {
+                postings.computeIfAbsent(gram, key -> new IdList()).add(bookId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long bookId) {
+        lock.writeLock().lock();
+        try {
+            String previous = titles.remove(bookId);
+            if (previous != null) {
+                for (long gram : gramsOf(previous)) {
+                    removePosting(gram, bookId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return titles.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Возвращает не более limit id книг в порядке возрастания
+    List<Long> search(String fragment, int limit) {
+        String normalized = normalize(fragment);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return normalized.length() < GRAM_LENGTH
+                    ? scanTitles(normalized, limit)
+                    : searchByGrams(normalized, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> searchByGrams(String fragment, int limit) {
+        List<IdList> lists = new ArrayList<>();
+        for (long gram : gramsOf(fragment)) {
+            IdList list = postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(IdList::size));
+
+        // Идем по самому короткому массиву и проверяем остальные двоичным поиском
+        IdList shortest = lists.get(0);
+        List<Long> result = new ArrayList<>(Math.min(limit, shortest.size()));
+        for (int i = 0; i < shortest.size() && result.size() < limit; i++) {
+            long bookId = shortest.get(i);
+            if (containedInAll(lists, bookId) && titles.get(bookId).contains(fragment)) {
+                result.add(bookId);
+            }
+        }
+        return result;
+    }
+
+    private List<Long> scanTitles(String fragment, int limit) {
+        long[] matched = titles.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(fragment))
+                .mapToLong(Map.Entry::getKey)
+                .sorted()
+                .limit(limit)
+                .toArray();
+        return Arrays.stream(matched).boxed().toList();
+    }
+
+    private static boolean containedInAll(List<IdList> lists, long bookId) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(bookId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void removePosting(long gram, long bookId) {
+        IdList list = postings.get(gram);
+        if (list != null && list.remove(bookId) && list.size() == 0) {
+            postings.remove(gram);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    // Три символа UTF-16 упаковываются в один long
+    private static Set<Long> gramsOf(String text) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static final class IdList {
+
+        private long[] ids = new long[4];
+
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        long get(int index) {
+            return ids[index];
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        // Новые книги получают возрастающие id, поэтому обычно это добавление в конец
+        void add(long id) {
+            int index = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -(index + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
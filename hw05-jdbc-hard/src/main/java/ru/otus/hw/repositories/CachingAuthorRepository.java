@@ -0,0 +1,52 @@
+package ru.otus.hw.repositories;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import ru.otus.hw.models.Author;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Primary
+@Repository
+public class CachingAuthorRepository implements AuthorRepository {
+
+    private final JdbcAuthorRepository authorRepository;
+
+    private final ReferenceDataCache<Author> cache;
+
+    public CachingAuthorRepository(JdbcAuthorRepository authorRepository,
+                                   @Value("${library.cache.authors.max-size:1000}") int maxSize) {
+        this.authorRepository = authorRepository;
+        this.cache = new ReferenceDataCache<>("authors", maxSize, Author::getId);
+    }
+
+    @Override
+    public List<Author> findAll() {
+        return cache.getAll(authorRepository::findAll);
+    }
+
+    @Override
+    public Optional<Author> findById(long id) {
+        return cache.get(id, authorRepository::findById);
+    }
+
+    @Override
+    public List<Author> findAllByIds(Set<Long> ids) {
+        return cache.getAll(ids, authorRepository::findAllByIds);
+    }
+
+    public void invalidate(long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public ReferenceDataCache.Stats stats() {
+        return cache.stats();
+    }
+}
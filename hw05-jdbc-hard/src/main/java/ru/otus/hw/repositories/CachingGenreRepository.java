@@ -0,0 +1,46 @@
+package ru.otus.hw.repositories;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import ru.otus.hw.models.Genre;
+
+import java.util.List;
+import java.util.Set;
+
+@Primary
+@Repository
+public class CachingGenreRepository implements GenreRepository {
+
+    private final JdbcGenreRepository genreRepository;
+
+    private final ReferenceDataCache<Genre> cache;
+
+    public CachingGenreRepository(JdbcGenreRepository genreRepository,
+                                  @Value("${library.cache.genres.max-size:1000}") int maxSize) {
+        this.genreRepository = genreRepository;
+        this.cache = new ReferenceDataCache<>("genres", maxSize, Genre::getId);
+    }
+
+    @Override
+    public List<Genre> findAll() {
+        return cache.getAll(genreRepository::findAll);
+    }
+
+    @Override
+    public List<Genre> findAllByIds(Set<Long> ids) {
+        return cache.getAll(ids, genreRepository::findAllByIds);
+    }
+
+    public void invalidate(long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public ReferenceDataCache.Stats stats() {
+        return cache.stats();
+    }
+}
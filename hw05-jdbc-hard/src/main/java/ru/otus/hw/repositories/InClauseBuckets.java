@@ -0,0 +1,47 @@
+package ru.otus.hw.repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Разбивает набор id для IN (:ids) на части фиксированных размеров, дополняя каждую последним id.
+// Так число различных SQL-запросов ограничено числом размеров, и драйвер/БД могут их кэшировать
+final class InClauseBuckets {
+
+    static final int[] BUCKET_SIZES = {1, 4, 16, 64, 256};
+
+    private static final int MAX_BUCKET_SIZE = BUCKET_SIZES[BUCKET_SIZES.length - 1];
+
+    private InClauseBuckets() {
+    }
+
+    static List<List<Long>> split(Collection<Long> ids) {
+        List<Long> sortedIds = ids.stream().sorted().toList();
+        List<List<Long>> chunks = new ArrayList<>(sortedIds.size() / MAX_BUCKET_SIZE + 1);
+        for (int from = 0; from < sortedIds.size(); from += MAX_BUCKET_SIZE) {
+            List<Long> chunk = sortedIds.subList(from, Math.min(from + MAX_BUCKET_SIZE, sortedIds.size()));
+            chunks.add(pad(chunk));
+        }
+        return chunks;
+    }
+
+    private static List<Long> pad(List<Long> chunk) {
+        int bucketSize = bucketSizeFor(chunk.size());
+        List<Long> padded = new ArrayList<>(bucketSize);
+        padded.addAll(chunk);
+        Long last = chunk.get(chunk.size() - 1);
+        while (padded.size() < bucketSize) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    private static int bucketSizeFor(int size) {
+        for (int bucketSize : BUCKET_SIZES) {
+            if (size <= bucketSize) {
+                return bucketSize;
+            }
+        }
+        return MAX_BUCKET_SIZE;
+    }
+}
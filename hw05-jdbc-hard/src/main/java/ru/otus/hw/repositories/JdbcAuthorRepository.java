@@ -1,16 +1,19 @@
 package ru.otus.hw.repositories;
 
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 import ru.otus.hw.models.Author;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public class JdbcAuthorRepository implements AuthorRepository {
@@ -36,6 +39,24 @@ public class JdbcAuthorRepository implements AuthorRepository {
         ).stream().findFirst();
     }
 
+    @Override
+    public List<Author> findAllByIds(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Author> result = new ArrayList<>(ids.size());
+        for (List<Long> chunk : InClauseBuckets.split(ids)) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource();
+            parameters.addValue("ids", chunk);
+            result.addAll(jdbcTemplate.query(
+                    "SELECT id, full_name FROM authors WHERE id IN (:ids)",
+                    parameters,
+                    new AuthorRowMapper()
+            ));
+        }
+        return result;
+    }
+
     private static class AuthorRowMapper implements RowMapper<Author> {
 
         @Override
@@ -1,13 +1,17 @@
 package ru.otus.hw.repositories;
 
-import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.otus.hw.dto.IdRange;
 import ru.otus.hw.exceptions.EntityNotFoundException;
 import ru.otus.hw.models.Author;
 import ru.otus.hw.models.Book;
@@ -16,23 +20,47 @@ import ru.otus.hw.models.Genre;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Repository
-@RequiredArgsConstructor
 public class JdbcBookRepository implements BookRepository {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final int SAVE_BATCH_SIZE = 1000;
+
     private final GenreRepository genreRepository;
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
     private final AuthorRepository authorRepository;
 
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    private final BookTitleIndex titleIndex = new BookTitleIndex();
+
+    public JdbcBookRepository(GenreRepository genreRepository, NamedParameterJdbcTemplate jdbcTemplate,
+                              AuthorRepository authorRepository) {
+        this.genreRepository = genreRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.authorRepository = authorRepository;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(STREAM_FETCH_SIZE);
+    }
+
     @Override
     public Optional<Book> findById(long id) {
         MapSqlParameterSource params = new MapSqlParameterSource();
@@ -59,12 +87,125 @@ public class JdbcBookRepository implements BookRepository {
         return books;
     }
 
+    @Override
+    public Stream<Book> streamAll() {
+        String sql = """
+            SELECT b.id, b.title, b.author_id, a.full_name, g.id as genre_id, g.name as genre_name
+            FROM books b
+            JOIN authors a ON b.author_id = a.id
+            LEFT JOIN books_genres bg ON b.id = bg.book_id
+            LEFT JOIN genres g ON bg.genre_id = g.id
+            ORDER BY b.id, bg.genre_id
+        """;
+
+        Stream<BookGenreRow> rows = streamingJdbcTemplate.queryForStream(sql, new BookGenreRowMapper());
+        return StreamSupport.stream(new BookGroupingSpliterator(rows.iterator()), false)
+                .onClose(rows::close);
+    }
+
+    @Override
+    public List<Book> findPage(long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("afterId", afterId);
+        params.addValue("limit", limit);
+
+        String sql = """
+            SELECT b.id, b.title, b.author_id, a.full_name, g.id as genre_id, g.name as genre_name
+            FROM (SELECT id, title, author_id FROM books WHERE id > :afterId ORDER BY id LIMIT :limit) b
+            JOIN authors a ON b.author_id = a.id
+            LEFT JOIN books_genres bg ON b.id = bg.book_id
+            LEFT JOIN genres g ON bg.genre_id = g.id
+            ORDER BY b.id, bg.genre_id
+        """;
+
+        List<BookGenreRow> rows = jdbcTemplate.query(sql, params, new BookGenreRowMapper());
+        return StreamSupport.stream(new BookGroupingSpliterator(rows.iterator()), false).toList();
+    }
+
+    @Override
+    public List<Book> findAllByIdRange(long fromId, long toId) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("fromId", fromId);
+        params.addValue("toId", toId);
+
+        String sql = """
+            SELECT b.id, b.title, b.author_id, a.full_name, g.id as genre_id, g.name as genre_name
+            FROM books b
+            JOIN authors a ON b.author_id = a.id
+            LEFT JOIN books_genres bg ON b.id = bg.book_id
+            LEFT JOIN genres g ON bg.genre_id = g.id
+            WHERE b.id >= :fromId AND b.id < :toId
+            ORDER BY b.id, bg.genre_id
+        """;
+
+        List<BookGenreRow> rows = jdbcTemplate.query(sql, params, new BookGenreRowMapper());
+        return StreamSupport.stream(new BookGroupingSpliterator(rows.iterator()), false).toList();
+    }
+
+    @Override
+    public Optional<IdRange> findIdRange() {
+        return Optional.ofNullable(jdbcTemplate.getJdbcTemplate().query(
+                "SELECT MIN(id), MAX(id) FROM books",
+                rs -> {
+                    rs.next();
+                    long minId = rs.getLong(1);
+                    return rs.wasNull() ? null : new IdRange(minId, rs.getLong(2));
+                }
+        ));
+    }
+
+    // Индекс названий заполняется из таблицы при первом поиске и далее поддерживается при сохранении и удалении
+    @Override
+    public List<Book> findAllByTitleContaining(String fragment, int limit) {
+        titleIndex.loadIfNeeded(this::loadTitleIndex);
+        List<Long> ids = titleIndex.search(fragment, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String sql = """
+            SELECT b.id, b.title, b.author_id, a.full_name, g.id as genre_id, g.name as genre_name
+            FROM books b
+            JOIN authors a ON b.author_id = a.id
+            LEFT JOIN books_genres bg ON b.id = bg.book_id
+            LEFT JOIN genres g ON bg.genre_id = g.id
+            WHERE b.id IN (:ids)
+            ORDER BY b.id, bg.genre_id
+        """;
+
+        List<Book> books = new ArrayList<>(ids.size());
+        for (List<Long> chunk : InClauseBuckets.split(ids)) {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            params.addValue("ids", chunk);
+            List<BookGenreRow> rows = jdbcTemplate.query(sql, params, new BookGenreRowMapper());
+            StreamSupport.stream(new BookGroupingSpliterator(rows.iterator()), false).forEach(books::add);
+        }
+        return books;
+    }
+
     @Override
     public Book save(Book book) {
-        if (book.getId() == 0) {
-            return insert(book);
+        Book saved = book.getId() == 0 ? insert(book) : update(book);
+        long id = saved.getId();
+        String title = saved.getTitle();
+        afterCommit(() -> titleIndex.put(id, title));
+        return saved;
+    }
+
+    @Override
+    public List<Book> saveAll(Collection<Book> books) {
+        List<Book> chunk = new ArrayList<>(Math.min(books.size(), SAVE_BATCH_SIZE));
+        for (Book book : books) {
+            chunk.add(book);
+            if (chunk.size() == SAVE_BATCH_SIZE) {
+                saveChunk(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(chunk);
         }
-        return update(book);
+        return new ArrayList<>(books);
     }
 
     @Override
@@ -72,11 +213,48 @@ public class JdbcBookRepository implements BookRepository {
         MapSqlParameterSource params = new MapSqlParameterSource();
         params.addValue("id", id);
 
-        // First delete from books_genres
-        jdbcTemplate.update("DELETE FROM books_genres WHERE book_id = :id", params);
-
-        // Then delete the book
+        // Связи с жанрами удаляются каскадно (books_genres.book_id ... on delete cascade)
         jdbcTemplate.update("DELETE FROM books WHERE id = :id", params);
+
+        afterCommit(() -> titleIndex.remove(id));
+    }
+
+    @Override
+    public int deleteAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int deletedCount = 0;
+        for (List<Long> chunk : InClauseBuckets.split(ids)) {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            params.addValue("ids", chunk);
+            deletedCount += jdbcTemplate.update("DELETE FROM books WHERE id IN (:ids)", params);
+        }
+
+        List<Long> deletedIds = List.copyOf(ids);
+        afterCommit(() -> deletedIds.forEach(titleIndex::remove));
+        return deletedCount;
+    }
+
+    // Id книг автора читаются перед удалением для индекса названий. Оба запроса идут в транзакции сервиса;
+    // id книги, добавленной между ними, останется в индексе, но поиск проверяет найденные id по таблице
+    @Override
+    public int deleteByAuthorId(long authorId) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("authorId", authorId);
+
+        List<Long> deletedIds = jdbcTemplate.queryForList(
+                "SELECT id FROM books WHERE author_id = :authorId",
+                params,
+                Long.class
+        );
+        if (deletedIds.isEmpty()) {
+            return 0;
+        }
+        int deletedCount = jdbcTemplate.update("DELETE FROM books WHERE author_id = :authorId", params);
+
+        afterCommit(() -> deletedIds.forEach(titleIndex::remove));
+        return deletedCount;
     }
 
     private List<Book> getAllBooksWithoutGenres() {
@@ -89,34 +267,19 @@ public class JdbcBookRepository implements BookRepository {
         return jdbcTemplate.query(sql, new BookRowMapper());
     }
 
-    private List<BookGenreRelation> getAllGenreRelations() {
-        String sql = "SELECT book_id, genre_id FROM books_genres";
+    private BookGenreRelations getAllGenreRelations() {
+        String sql = "SELECT book_id, genre_id FROM books_genres ORDER BY book_id, genre_id";
 
-        return jdbcTemplate.query(sql, (rs, rowNum) -> 
-            new BookGenreRelation(rs.getLong("book_id"), rs.getLong("genre_id")));
+        BookGenreRelations relations = new BookGenreRelations();
+        jdbcTemplate.getJdbcTemplate().query(sql, rs -> {
+            relations.add(rs.getLong(1), rs.getLong(2));
+        });
+        return relations;
     }
 
     private void mergeBooksInfo(List<Book> booksWithoutGenres, List<Genre> genres,
-                                List<BookGenreRelation> relations) {
-        // Create a map of genre id to genre
-        Map<Long, Genre> genreMap = genres.stream()
-                .collect(Collectors.toMap(Genre::getId, genre -> genre));
-
-        // Group relations by book id
-        Map<Long, List<Long>> bookGenreRelations = new HashMap<>();
-        for (BookGenreRelation relation : relations) {
-            bookGenreRelations.computeIfAbsent(relation.bookId(), k -> new ArrayList<>())
-                    .add(relation.genreId());
-        }
-
-        // Add genres to books
-        for (Book book : booksWithoutGenres) {
-            List<Long> genreIds = bookGenreRelations.getOrDefault(book.getId(), Collections.emptyList());
-            List<Genre> bookGenres = genreIds.stream()
-                    .map(genreMap::get)
-                    .collect(Collectors.toList());
-            book.setGenres(bookGenres);
-        }
+                                BookGenreRelations relations) {
+        relations.mergeInto(booksWithoutGenres, genres);
     }
 
     private Book insert(Book book) {
@@ -135,11 +298,138 @@ public class JdbcBookRepository implements BookRepository {
 
         //noinspection DataFlowIssue
         book.setId(keyHolder.getKeyAs(Long.class));
-        batchInsertGenresRelationsFor(book);
+        batchInsertGenresRelationsFor(List.of(book));
         return book;
     }
 
+    private void saveChunk(List<Book> books) {
+        List<Book> newBooks = books.stream().filter(book -> book.getId() == 0).toList();
+        List<Book> existingBooks = books.stream().filter(book -> book.getId() != 0).toList();
+
+        batchInsert(newBooks);
+        batchUpdate(existingBooks);
+        removeGenresRelationsFor(existingBooks);
+        batchInsertGenresRelationsFor(books);
+
+        Map<Long, String> titles = new LinkedHashMap<>();
+        books.forEach(book -> titles.put(book.getId(), book.getTitle()));
+        afterCommit(() -> titles.forEach(titleIndex::put));
+    }
+
+    private void loadTitleIndex(BookTitleIndex index) {
+        streamingJdbcTemplate.query("SELECT id, title FROM books", rs -> {
+            index.put(rs.getLong(1), rs.getString(2));
+        });
+    }
+
+    // Индекс названий меняется только после фиксации транзакции, чтобы откат не оставлял в нем чужих названий
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void batchInsert(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        var keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO books (title, author_id) VALUES (:title, :authorId)",
+                toBookParams(books),
+                keyHolder,
+                new String[]{"id"}
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < books.size(); i++) {
+            books.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+
+    private void batchUpdate(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        int[] updatedCounts = jdbcTemplate.batchUpdate(
+                "UPDATE books SET title = :title, author_id = :authorId WHERE id = :id",
+                toBookParams(books)
+        );
+
+        for (int i = 0; i < updatedCounts.length; i++) {
+            if (updatedCounts[i] == 0) {
+                throw new EntityNotFoundException("Book with id %d not found".formatted(books.get(i).getId()));
+            }
+        }
+    }
+
+    private SqlParameterSource[] toBookParams(List<Book> books) {
+        return books.stream()
+                .map(book -> new MapSqlParameterSource()
+                        .addValue("id", book.getId())
+                        .addValue("title", book.getTitle())
+                        .addValue("authorId", book.getAuthor().getId()))
+                .toArray(SqlParameterSource[]::new);
+    }
+
+    // Обновляет только изменившиеся данные: строку books и разницу между текущими и новыми жанрами
     private Book update(Book book) {
+        StoredBookState stored = findStoredState(book.getId())
+                .orElseThrow(() -> new EntityNotFoundException("Book with id %d not found".formatted(book.getId())));
+
+        if (!stored.hasSameRow(book)) {
+            updateBookRow(book);
+        }
+
+        Set<Long> newGenresIds = new HashSet<>();
+        List<Genre> addedGenres = new ArrayList<>();
+        for (Genre genre : book.getGenres()) {
+            if (newGenresIds.add(genre.getId()) && !stored.genresIds().contains(genre.getId())) {
+                addedGenres.add(genre);
+            }
+        }
+        Set<Long> removedGenresIds = new HashSet<>(stored.genresIds());
+        removedGenresIds.removeAll(newGenresIds);
+
+        removeGenresRelationsFor(book.getId(), removedGenresIds);
+        batchInsertGenresRelationsFor(book.getId(), addedGenres);
+
+        return book;
+    }
+
+    // Строка книги блокируется до конца транзакции: параллельное изменение той же книги ждет, а не строит
+    // свою разницу жанров по тому же устаревшему состоянию
+    private Optional<StoredBookState> findStoredState(long id) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("id", id);
+
+        List<StoredBookState> states = jdbcTemplate.query(
+                "SELECT title, author_id FROM books WHERE id = :id FOR UPDATE",
+                params,
+                (rs, rowNum) -> new StoredBookState(rs.getString("title"), rs.getLong("author_id"), new HashSet<>())
+        );
+        if (states.isEmpty()) {
+            return Optional.empty();
+        }
+
+        StoredBookState state = states.get(0);
+        state.genresIds().addAll(jdbcTemplate.queryForList(
+                "SELECT genre_id FROM books_genres WHERE book_id = :id",
+                params,
+                Long.class
+        ));
+        return Optional.of(state);
+    }
+
+    private void updateBookRow(Book book) {
         MapSqlParameterSource params = new MapSqlParameterSource();
         params.addValue("id", book.getId());
         params.addValue("title", book.getTitle());
@@ -153,55 +443,80 @@ public class JdbcBookRepository implements BookRepository {
         if (updatedCount == 0) {
             throw new EntityNotFoundException("Book with id %d not found".formatted(book.getId()));
         }
+    }
 
-        removeGenresRelationsFor(book);
-        batchInsertGenresRelationsFor(book);
-
-        return book;
+    private void batchInsertGenresRelationsFor(List<Book> books) {
+        List<MapSqlParameterSource> batchParams = new ArrayList<>();
+        for (Book book : books) {
+            addGenresRelationsParams(book.getId(), book.getGenres(), batchParams);
+        }
+        batchInsertGenresRelations(batchParams);
     }
 
-    private void batchInsertGenresRelationsFor(Book book) {
+    private void batchInsertGenresRelationsFor(long bookId, List<Genre> genres) {
         List<MapSqlParameterSource> batchParams = new ArrayList<>();
+        addGenresRelationsParams(bookId, genres, batchParams);
+        batchInsertGenresRelations(batchParams);
+    }
 
-        for (Genre genre : book.getGenres()) {
+    private void addGenresRelationsParams(long bookId, List<Genre> genres, List<MapSqlParameterSource> batchParams) {
+        for (Genre genre : genres) {
             MapSqlParameterSource params = new MapSqlParameterSource();
-            params.addValue("bookId", book.getId());
+            params.addValue("bookId", bookId);
             params.addValue("genreId", genre.getId());
             batchParams.add(params);
         }
+    }
 
+    private void batchInsertGenresRelations(List<MapSqlParameterSource> batchParams) {
+        if (batchParams.isEmpty()) {
+            return;
+        }
         jdbcTemplate.batchUpdate(
                 "INSERT INTO books_genres (book_id, genre_id) VALUES (:bookId, :genreId)",
                 batchParams.toArray(new MapSqlParameterSource[0])
         );
     }
 
-    private void removeGenresRelationsFor(Book book) {
-        MapSqlParameterSource params = new MapSqlParameterSource();
-        params.addValue("bookId", book.getId());
+    private void removeGenresRelationsFor(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        for (List<Long> chunk : InClauseBuckets.split(books.stream().map(Book::getId).toList())) {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            params.addValue("bookIds", chunk);
+            jdbcTemplate.update("DELETE FROM books_genres WHERE book_id IN (:bookIds)", params);
+        }
+    }
 
-        jdbcTemplate.update("DELETE FROM books_genres WHERE book_id = :bookId", params);
+    private void removeGenresRelationsFor(long bookId, Set<Long> genresIds) {
+        if (genresIds.isEmpty()) {
+            return;
+        }
+        for (List<Long> chunk : InClauseBuckets.split(genresIds)) {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            params.addValue("bookId", bookId);
+            params.addValue("genresIds", chunk);
+            jdbcTemplate.update("DELETE FROM books_genres WHERE book_id = :bookId AND genre_id IN (:genresIds)",
+                    params);
+        }
     }
 
     private static class BookRowMapper implements RowMapper<Book> {
 
+        private final BookRowReader reader = new BookRowReader();
+
         @Override
         public Book mapRow(ResultSet rs, int rowNum) throws SQLException {
-            long id = rs.getLong("id");
-            String title = rs.getString("title");
-            long authorId = rs.getLong("author_id");
-            String authorFullName = rs.getString("full_name");
-
-            Author author = new Author(authorId, authorFullName);
-            return new Book(id, title, author, new ArrayList<>());
+            return reader.readBook(rs);
         }
     }
 
     // Использовать для findById
-    @SuppressWarnings("ClassCanBeRecord")
-    @RequiredArgsConstructor
     private static class BookResultSetExtractor implements ResultSetExtractor<Book> {
 
+        private final BookRowReader reader = new BookRowReader();
+
         @Override
         public Book extractData(ResultSet rs) throws SQLException, DataAccessException {
             Book book = null;
@@ -209,9 +524,12 @@ public class JdbcBookRepository implements BookRepository {
 
             while (rs.next()) {
                 if (book == null) {
-                    book = createBookFromResultSet(rs);
+                    book = reader.readBook(rs);
+                }
+                Genre genre = reader.readGenreIfPresent(rs);
+                if (genre != null) {
+                    genres.add(genre);
                 }
-                addGenreIfPresent(rs, genres);
             }
 
             if (book != null) {
@@ -220,26 +538,72 @@ public class JdbcBookRepository implements BookRepository {
 
             return book;
         }
+    }
+
+    private static class BookGenreRowMapper implements RowMapper<BookGenreRow> {
+
+        private final BookRowReader reader = new BookRowReader();
+
+        @Override
+        public BookGenreRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return new BookGenreRow(
+                    reader.readBookId(rs),
+                    reader.readTitle(rs),
+                    reader.readAuthor(rs),
+                    reader.readGenreIfPresent(rs)
+            );
+        }
+    }
+
+    // Собирает книги из упорядоченных по id строк, удерживая в памяти только текущую книгу
+    private static class BookGroupingSpliterator extends Spliterators.AbstractSpliterator<Book> {
 
-        private Book createBookFromResultSet(ResultSet rs) throws SQLException {
-            long id = rs.getLong("id");
-            String title = rs.getString("title");
-            long authorId = rs.getLong("author_id");
-            String authorFullName = rs.getString("full_name");
+        private final Iterator<BookGenreRow> rows;
 
-            Author author = new Author(authorId, authorFullName);
-            return new Book(id, title, author, new ArrayList<>());
+        private BookGenreRow pending;
+
+        BookGroupingSpliterator(Iterator<BookGenreRow> rows) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT);
+            this.rows = rows;
         }
 
-        private void addGenreIfPresent(ResultSet rs, List<Genre> genres) throws SQLException {
-            long genreId = rs.getLong("genre_id");
-            if (!rs.wasNull()) {
-                String genreName = rs.getString("genre_name");
-                genres.add(new Genre(genreId, genreName));
+        @Override
+        public boolean tryAdvance(Consumer<? super Book> action) {
+            BookGenreRow first = pending != null ? pending : (rows.hasNext() ? rows.next() : null);
+            pending = null;
+            if (first == null) {
+                return false;
             }
+
+            List<Genre> genres = new ArrayList<>();
+            first.addGenreTo(genres);
+            while (rows.hasNext()) {
+                BookGenreRow row = rows.next();
+                if (row.bookId() != first.bookId()) {
+                    pending = row;
+                    break;
+                }
+                row.addGenreTo(genres);
+            }
+
+            action.accept(new Book(first.bookId(), first.title(), first.author(), genres));
+            return true;
         }
     }
 
-    private record BookGenreRelation(long bookId, long genreId) {
+    private record StoredBookState(String title, long authorId, Set<Long> genresIds) {
+
+        boolean hasSameRow(Book book) {
+            return authorId == book.getAuthor().getId() && Objects.equals(title, book.getTitle());
+        }
+    }
+
+    private record BookGenreRow(long bookId, String title, Author author, Genre genre) {
+
+        void addGenreTo(List<Genre> genres) {
+            if (genre != null) {
+                genres.add(genre);
+            }
+        }
     }
 }
@@ -8,6 +8,7 @@ import ru.otus.hw.models.Genre;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -31,13 +32,17 @@ public class JdbcGenreRepository implements GenreRepository {
         if (ids.isEmpty()) {
             return Collections.emptyList();
         }
-        MapSqlParameterSource parameters = new MapSqlParameterSource();
-        parameters.addValue("ids", ids);
-        return jdbcTemplate.query(
-                "SELECT id, name FROM genres WHERE id IN (:ids)",
-                parameters,
-                new GenreRowMapper()
-        );
+        List<Genre> result = new ArrayList<>(ids.size());
+        for (List<Long> chunk : InClauseBuckets.split(ids)) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource();
+            parameters.addValue("ids", chunk);
+            result.addAll(jdbcTemplate.query(
+                    "SELECT id, name FROM genres WHERE id IN (:ids)",
+                    parameters,
+                    new GenreRowMapper()
+            ));
+        }
+        return result;
     }
 
     private static class GenreRowMapper implements RowMapper<Genre> {
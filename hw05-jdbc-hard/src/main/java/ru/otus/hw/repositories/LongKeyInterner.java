@@ -0,0 +1,92 @@
+package ru.otus.hw.repositories;
+
+import java.util.Arrays;
+
+// Таблица с открытой адресацией long -> V для переиспользования объектов в пределах одного запроса.
+// При достижении предельного размера очищается, поэтому память ограничена независимо от объема выборки
+final class LongKeyInterner<V> {
+
+    private static final int DEFAULT_MAX_SIZE = 4096;
+
+    private final int maxSize;
+
+    private long[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    LongKeyInterner() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    LongKeyInterner(int maxSize) {
+        this.maxSize = maxSize;
+        this.keys = new long[16];
+        this.values = new Object[16];
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int mask = keys.length - 1;
+        for (int i = indexFor(key, mask); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    V put(long key, V value) {
+        if (size >= maxSize) {
+            clear();
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        insert(key, value);
+        return value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void insert(long key, Object value) {
+        int mask = keys.length - 1;
+        int i = indexFor(key, mask);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private static int indexFor(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,154 @@
+package ru.otus.hw.repositories;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Ограниченный по размеру LRU-кэш справочных данных со счетчиками попаданий и промахов.
+// Загрузка из базы при промахе идет вне монитора и не блокирует чтения остальных ключей
+public class ReferenceDataCache<V> {
+
+    private final String name;
+
+    private final int maxSize;
+
+    private final Function<V, Long> idExtractor;
+
+    private final Map<Long, V> entries;
+
+    private List<V> allEntries;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    // Увеличивается при каждой инвалидации
+    private long generation;
+
+    public ReferenceDataCache(String name, int maxSize, Function<V, Long> idExtractor) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.idExtractor = idExtractor;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                boolean evict = size() > ReferenceDataCache.this.maxSize;
+                if (evict) {
+                    evictions++;
+                    allEntries = null;
+                }
+                return evict;
+            }
+        };
+    }
+
+    public Optional<V> get(long id, Function<Long, Optional<V>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            V value = entries.get(id);
+            if (value != null) {
+                hits++;
+                return Optional.of(value);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        return loader.apply(id).map(value -> publish(List.of(value), loadGeneration).get(0));
+    }
+
+    public List<V> getAll(Set<Long> ids, Function<Set<Long>, List<V>> loader) {
+        List<V> result = new ArrayList<>(ids.size());
+        Set<Long> missingIds = new HashSet<>();
+        long loadGeneration;
+        synchronized (this) {
+            for (Long id : ids) {
+                V value = entries.get(id);
+                if (value != null) {
+                    hits++;
+                    result.add(value);
+                } else {
+                    misses++;
+                    missingIds.add(id);
+                }
+            }
+            loadGeneration = generation;
+        }
+        if (!missingIds.isEmpty()) {
+            result.addAll(publish(loader.apply(missingIds), loadGeneration));
+        }
+        return result;
+    }
+
+    // Полный список кэшируется, только если целиком помещается в кэш
+    public List<V> getAll(Supplier<List<V>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            if (allEntries != null) {
+                hits++;
+                return allEntries;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        List<V> loaded = List.copyOf(loader.get());
+        if (loaded.size() > maxSize) {
+            return loaded;
+        }
+        List<V> published = List.copyOf(publish(loaded, loadGeneration));
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                allEntries = published;
+            }
+        }
+        return published;
+    }
+
+    public synchronized void invalidate(long id) {
+        generation++;
+        entries.remove(id);
+        allEntries = null;
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        allEntries = null;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(name, entries.size(), maxSize, hits, misses, evictions);
+    }
+
+    // Загруженное вне монитора публикуется через putIfAbsent: если тот же ключ уже загрузил другой поток,
+    // возвращается закэшированный экземпляр. Загрузка, начатая до инвалидации, в кэш не попадает
+    private synchronized List<V> publish(List<V> loaded, long loadGeneration) {
+        if (generation != loadGeneration) {
+            return loaded;
+        }
+        List<V> published = new ArrayList<>(loaded.size());
+        for (V value : loaded) {
+            V cached = entries.putIfAbsent(idExtractor.apply(value), value);
+            published.add(cached == null ? value : cached);
+        }
+        return published;
+    }
+
+    public record Stats(String name, int size, int maxSize, long hits, long misses, long evictions) {
+
+        public double hitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+}
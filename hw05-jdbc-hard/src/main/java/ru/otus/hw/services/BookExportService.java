@@ -0,0 +1,11 @@
+package ru.otus.hw.services;
+
+import ru.otus.hw.dto.ExportFormat;
+import ru.otus.hw.dto.ExportProgress;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+public interface BookExportService {
+    ExportProgress export(Path path, ExportFormat format, Consumer<ExportProgress> progressListener);
+}
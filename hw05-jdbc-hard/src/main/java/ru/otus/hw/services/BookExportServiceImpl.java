@@ -0,0 +1,110 @@
+package ru.otus.hw.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.otus.hw.converters.BookExportConverter;
+import ru.otus.hw.dto.ExportFormat;
+import ru.otus.hw.dto.ExportProgress;
+import ru.otus.hw.dto.IdRange;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.repositories.BookRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// Диапазон books.id делится на части, которые читаются параллельно (не более parallelism соединений),
+// а результаты пишутся в файл по порядку. В памяти одновременно находится не больше 2 * parallelism частей
+@Service
+public class BookExportServiceImpl implements BookExportService {
+    private final BookRepository bookRepository;
+
+    private final BookExportConverter bookExportConverter;
+
+    private final int parallelism;
+
+    private final long chunkSize;
+
+    public BookExportServiceImpl(BookRepository bookRepository, BookExportConverter bookExportConverter,
+                                 @Value("${library.export.parallelism:4}") int parallelism,
+                                 @Value("${library.export.chunk-size:10000}") long chunkSize) {
+        if (parallelism <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Export parallelism and chunk size must be positive");
+        }
+        this.bookRepository = bookRepository;
+        this.bookExportConverter = bookExportConverter;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ExportProgress export(Path path, ExportFormat format, Consumer<ExportProgress> progressListener) {
+        long startedAt = System.nanoTime();
+        IdRange idRange = bookRepository.findIdRange().orElse(new IdRange(1, 0));
+        int chunksTotal = (int) ((idRange.maxId() - idRange.minId() + chunkSize) / chunkSize);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Deque<Future<ExportChunk>> inFlight = new ArrayDeque<>();
+            long nextFromId = idRange.minId();
+            long rows = 0;
+            long bytes = 0;
+            for (int chunksDone = 0; chunksDone < chunksTotal; chunksDone++) {
+                while (inFlight.size() < parallelism * 2 && nextFromId <= idRange.maxId()) {
+                    long fromId = nextFromId;
+                    inFlight.add(executor.submit(() -> readChunk(fromId, fromId + chunkSize, format)));
+                    nextFromId += chunkSize;
+                }
+                ExportChunk chunk = inFlight.poll().get();
+                writeFully(channel, chunk.content());
+                rows += chunk.rows();
+                bytes += chunk.content().limit();
+                progressListener.accept(new ExportProgress(chunksDone + 1, chunksTotal, rows, bytes,
+                        Duration.ofNanos(System.nanoTime() - startedAt)));
+            }
+            channel.force(false);
+            return new ExportProgress(chunksTotal, chunksTotal, rows, bytes,
+                    Duration.ofNanos(System.nanoTime() - startedAt));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Export of books chunk failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ExportChunk readChunk(long fromId, long toId, ExportFormat format) {
+        var books = bookRepository.findAllByIdRange(fromId, toId);
+        StringBuilder content = new StringBuilder(books.size() * 96);
+        for (Book book : books) {
+            bookExportConverter.appendBook(content, book, format);
+        }
+        return new ExportChunk(books.size(), ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private record ExportChunk(int rows, ByteBuffer content) {
+    }
+}
@@ -1,19 +1,33 @@
 package ru.otus.hw.services;
 
+import ru.otus.hw.dto.BookCreateDto;
 import ru.otus.hw.models.Book;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface BookService {
     Optional<Book> findById(long id);
 
     List<Book> findAll();
 
+    Stream<Book> streamAll();
+
+    List<Book> findPage(long afterId, int limit);
+
+    List<Book> findByTitle(String fragment, int limit);
+
     Book insert(String title, long authorId, Set<Long> genresIds);
 
+    List<Book> insertAll(List<BookCreateDto> books);
+
     Book update(long id, String title, long authorId, Set<Long> genresIds);
 
     void deleteById(long id);
+
+    int deleteAllByIds(Set<Long> ids);
+
+    int deleteByAuthorId(long authorId);
 }
@@ -2,15 +2,24 @@ package ru.otus.hw.services;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.otus.hw.dto.BookCreateDto;
 import ru.otus.hw.exceptions.EntityNotFoundException;
+import ru.otus.hw.models.Author;
 import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
 import ru.otus.hw.repositories.AuthorRepository;
 import ru.otus.hw.repositories.BookRepository;
 import ru.otus.hw.repositories.GenreRepository;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.springframework.util.CollectionUtils.isEmpty;
 
@@ -33,11 +42,61 @@ public class BookServiceImpl implements BookService {
         return bookRepository.findAll();
     }
 
+    @Override
+    public Stream<Book> streamAll() {
+        return bookRepository.streamAll();
+    }
+
+    @Override
+    public List<Book> findPage(long afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        return bookRepository.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<Book> findByTitle(String fragment, int limit) {
+        if (fragment == null || fragment.isBlank()) {
+            throw new IllegalArgumentException("Title fragment must not be blank");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Search limit must be positive");
+        }
+        return bookRepository.findAllByTitleContaining(fragment, limit);
+    }
+
+    @Transactional
     @Override
     public Book insert(String title, long authorId, Set<Long> genresIds) {
         return save(0, title, authorId, genresIds);
     }
 
+    @Transactional
+    @Override
+    public List<Book> insertAll(List<BookCreateDto> books) {
+        Set<Long> authorsIds = new HashSet<>();
+        Set<Long> genresIds = new HashSet<>();
+        for (BookCreateDto book : books) {
+            if (isEmpty(book.getGenresIds())) {
+                throw new IllegalArgumentException("Genres ids must not be null");
+            }
+            authorsIds.add(book.getAuthorId());
+            genresIds.addAll(book.getGenresIds());
+        }
+
+        Map<Long, Author> authors = authorRepository.findAllByIds(authorsIds).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+        Map<Long, Genre> genres = genreRepository.findAllByIds(genresIds).stream()
+                .collect(Collectors.toMap(Genre::getId, Function.identity()));
+
+        var newBooks = books.stream()
+                .map(book -> toNewBook(book, authors, genres))
+                .toList();
+        return bookRepository.saveAll(newBooks);
+    }
+
+    @Transactional
     @Override
     public Book update(long id, String title, long authorId, Set<Long> genresIds) {
         return save(id, title, authorId, genresIds);
@@ -48,6 +107,21 @@ public class BookServiceImpl implements BookService {
         bookRepository.deleteById(id);
     }
 
+    @Transactional
+    @Override
+    public int deleteAllByIds(Set<Long> ids) {
+        if (isEmpty(ids)) {
+            throw new IllegalArgumentException("Books ids must not be empty");
+        }
+        return bookRepository.deleteAllByIds(ids);
+    }
+
+    @Transactional
+    @Override
+    public int deleteByAuthorId(long authorId) {
+        return bookRepository.deleteByAuthorId(authorId);
+    }
+
     private Book save(long id, String title, long authorId, Set<Long> genresIds) {
         if (isEmpty(genresIds)) {
             throw new IllegalArgumentException("Genres ids must not be null");
@@ -63,4 +137,19 @@ public class BookServiceImpl implements BookService {
         var book = new Book(id, title, author, genres);
         return bookRepository.save(book);
     }
+
+    private Book toNewBook(BookCreateDto dto, Map<Long, Author> authors, Map<Long, Genre> genres) {
+        var author = authors.get(dto.getAuthorId());
+        if (author == null) {
+            throw new EntityNotFoundException("Author with id %d not found".formatted(dto.getAuthorId()));
+        }
+        var genresIds = dto.getGenresIds();
+        if (!genres.keySet().containsAll(genresIds)) {
+            throw new EntityNotFoundException("One or all genres with ids %s not found".formatted(genresIds));
+        }
+        var bookGenres = genresIds.stream()
+                .map(genres::get)
+                .toList();
+        return new Book(0, dto.getTitle(), author, bookGenres);
+    }
 }
@@ -0,0 +1,11 @@
+package ru.otus.hw.services;
+
+import ru.otus.hw.repositories.ReferenceDataCache;
+
+import java.util.List;
+
+public interface CacheService {
+    List<ReferenceDataCache.Stats> findAllStats();
+
+    void invalidateAll();
+}
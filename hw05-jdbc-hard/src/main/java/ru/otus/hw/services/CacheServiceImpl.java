@@ -0,0 +1,28 @@
+package ru.otus.hw.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.otus.hw.repositories.CachingAuthorRepository;
+import ru.otus.hw.repositories.CachingGenreRepository;
+import ru.otus.hw.repositories.ReferenceDataCache;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@Service
+public class CacheServiceImpl implements CacheService {
+    private final CachingAuthorRepository authorRepository;
+
+    private final CachingGenreRepository genreRepository;
+
+    @Override
+    public List<ReferenceDataCache.Stats> findAllStats() {
+        return List.of(authorRepository.stats(), genreRepository.stats());
+    }
+
+    @Override
+    public void invalidateAll() {
+        authorRepository.invalidateAll();
+        genreRepository.invalidateAll();
+    }
+}
@@ -0,0 +1,3 @@
+create index if not exists books_author_id_idx on books (author_id);
+
+create index if not exists books_genres_genre_id_book_id_idx on books_genres (genre_id, book_id);
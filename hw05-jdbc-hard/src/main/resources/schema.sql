@@ -21,4 +21,8 @@ create table books_genres (
     book_id bigint references books(id) on delete cascade,
     genre_id bigint references genres(id) on delete cascade,
     primary key (book_id, genre_id)
-);
\ No newline at end of file
+);
+
+create index books_author_id_idx on books (author_id);
+
+create index books_genres_genre_id_book_id_idx on books_genres (genre_id, book_id);
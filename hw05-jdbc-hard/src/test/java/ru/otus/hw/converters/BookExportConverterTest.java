@@ -0,0 +1,79 @@
+package ru.otus.hw.converters;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.otus.hw.dto.ExportFormat;
+import ru.otus.hw.models.Author;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Конвертер строк выгрузки каталога ")
+class BookExportConverterTest {
+
+    private final BookExportConverter converter = new BookExportConverter();
+
+    @DisplayName("должен выгружать книгу в CSV без кавычек, если они не нужны")
+    @Test
+    void shouldWritePlainCsv() {
+        var book = book("Title", "Author");
+
+        assertThat(convert(book, ExportFormat.CSV)).isEqualTo("1;Title;2;Author;3,4\n");
+    }
+
+    @DisplayName("должен заключать в кавычки CSV значения с разделителем, кавычками и управляющими символами")
+    @Test
+    void shouldQuoteCsvValues() {
+        assertThat(convert(book("He said \"hi\"; bye", "Author"), ExportFormat.CSV))
+                .isEqualTo("1;\"He said \"\"hi\"\"; bye\";2;Author;3,4\n");
+        assertThat(convert(book("Line\nbreak", "Carriage\rreturn"), ExportFormat.CSV))
+                .isEqualTo("1;\"Line\nbreak\";2;\"Carriage\rreturn\";3,4\n");
+        assertThat(convert(book("Tab\there", "Bell\u0007"), ExportFormat.CSV))
+                .isEqualTo("1;\"Tab\there\";2;\"Bell\u0007\";3,4\n");
+    }
+
+    @DisplayName("должен выгружать книгу строкой JSON")
+    @Test
+    void shouldWritePlainJson() {
+        var book = book("Title", "Author");
+
+        assertThat(convert(book, ExportFormat.JSONL)).isEqualTo("{\"id\":1,\"title\":\"Title\","
+                + "\"author\":{\"id\":2,\"fullName\":\"Author\"},"
+                + "\"genres\":[{\"id\":3,\"name\":\"Genre_3\"},{\"id\":4,\"name\":\"Genre_4\"}]}\n");
+    }
+
+    @DisplayName("должен экранировать в JSON кавычки, обратную косую черту, разделители и управляющие символы")
+    @Test
+    void shouldEscapeJsonStrings() {
+        var json = convert(book("He said \"hi\"; C:\\books", "Line\nbreak\r\tand\u0007bell"), ExportFormat.JSONL);
+
+        assertThat(json)
+                .contains("\"title\":\"He said \\\"hi\\\"; C:\\\\books\"")
+                .contains("\"fullName\":\"Line\\nbreak\\r\\tand\\u0007bell\"")
+                .endsWith("}\n")
+                .hasLineCount(1);
+    }
+
+    @DisplayName("должен выгружать отсутствующее имя автора как пустое значение")
+    @Test
+    void shouldWriteNullValues() {
+        var book = book("Title", null);
+
+        assertThat(convert(book, ExportFormat.CSV)).isEqualTo("1;Title;2;;3,4\n");
+        assertThat(convert(book, ExportFormat.JSONL)).contains("\"fullName\":null");
+    }
+
+    private String convert(Book book, ExportFormat format) {
+        var target = new StringBuilder();
+        converter.appendBook(target, book, format);
+        return target.toString();
+    }
+
+    private static Book book(String title, String authorFullName) {
+        return new Book(1, title, new Author(2, authorFullName),
+                List.of(new Genre(3, "Genre_3"), new Genre(4, "Genre_4")));
+    }
+}
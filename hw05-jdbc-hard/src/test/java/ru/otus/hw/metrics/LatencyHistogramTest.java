@@ -0,0 +1,38 @@
+package ru.otus.hw.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("Гистограмма задержек ")
+class LatencyHistogramTest {
+
+    @DisplayName("должна вычислять перцентили с погрешностью не более 12.5%")
+    @Test
+    void shouldComputePercentilesWithBoundedError() {
+        var histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros);
+        }
+
+        assertThat(histogram.percentile(50)).isCloseTo(5_000L, within(625L));
+        assertThat(histogram.percentile(95)).isCloseTo(9_500L, within(1_188L));
+        assertThat(histogram.percentile(99)).isCloseTo(9_900L, within(1_238L));
+    }
+
+    @DisplayName("должна возвращать ноль без записей")
+    @Test
+    void shouldReturnZeroWhenEmpty() {
+        assertThat(new LatencyHistogram().percentile(99)).isZero();
+    }
+
+    @DisplayName("должна относить значение к корзине, верхняя граница которой не меньше значения")
+    @Test
+    void shouldPutValueIntoBucketCoveringIt() {
+        for (long value : new long[]{0, 7, 8, 15, 16, 17, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            assertThat(LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(value))).isGreaterThanOrEqualTo(value);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.otus.hw.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import ru.otus.hw.repositories.BookRepository;
+import ru.otus.hw.repositories.JdbcAuthorRepository;
+import ru.otus.hw.repositories.JdbcBookRepository;
+import ru.otus.hw.repositories.JdbcGenreRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Замеры операций репозиториев ")
+@JdbcTest
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({JdbcBookRepository.class, JdbcGenreRepository.class, JdbcAuthorRepository.class,
+        RepositoryMetrics.class, RepositoryMetricsAspect.class, StatementCountingDataSourcePostProcessor.class})
+class RepositoryMetricsAspectTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private RepositoryMetrics repositoryMetrics;
+
+    @BeforeEach
+    void setUp() {
+        repositoryMetrics.reset();
+    }
+
+    @DisplayName("должен учитывать вызовы, строки и запросы операции")
+    @Test
+    void shouldRecordCallsRowsAndStatements() {
+        bookRepository.findAll();
+        bookRepository.findAll();
+
+        assertThat(snapshotOf("JdbcBookRepository.findAll"))
+                .matches(stats -> stats.calls() == 2 && stats.rows() == 6 && stats.statements() == 6)
+                .matches(stats -> stats.p50Micros() > 0 && stats.p99Micros() >= stats.p50Micros());
+        assertThat(snapshotOf("JdbcGenreRepository.findAll"))
+                .matches(stats -> stats.calls() == 2 && stats.statements() == 2);
+    }
+
+    @DisplayName("должен завершать замер потока при его закрытии")
+    @Test
+    void shouldRecordStreamOnClose() {
+        try (var books = bookRepository.streamAll()) {
+            assertThat(books.count()).isEqualTo(3);
+            assertThat(repositoryMetrics.snapshots()).isEmpty();
+        }
+
+        assertThat(snapshotOf("JdbcBookRepository.streamAll"))
+                .matches(stats -> stats.calls() == 1 && stats.rows() == 3 && stats.statements() == 1);
+    }
+
+    @DisplayName("должен учитывать ошибки операций")
+    @Test
+    void shouldRecordErrors() {
+        assertThatThrownBy(() -> bookRepository.findPage(0, -1)).isInstanceOf(RuntimeException.class);
+
+        assertThat(snapshotOf("JdbcBookRepository.findPage")).matches(stats -> stats.errors() == 1);
+    }
+
+    private OperationStats.Snapshot snapshotOf(String operation) {
+        return repositoryMetrics.snapshots().stream()
+                .filter(stats -> stats.name().equals(operation))
+                .findFirst()
+                .orElseThrow();
+    }
+}
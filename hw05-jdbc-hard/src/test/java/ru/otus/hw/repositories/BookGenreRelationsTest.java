@@ -0,0 +1,41 @@
+package ru.otus.hw.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.otus.hw.models.Author;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Связи книг и жанров на примитивных массивах ")
+class BookGenreRelationsTest {
+
+    private final List<Genre> genres = List.of(new Genre(3, "Genre_3"), new Genre(1, "Genre_1"),
+            new Genre(2, "Genre_2"));
+
+    @DisplayName("должны раскладывать жанры по книгам при неупорядоченных связях")
+    @Test
+    void shouldMergeUnsortedRelations() {
+        var author = new Author(1, "Author_1");
+        var books = List.of(new Book(2, "BookTitle_2", author, new ArrayList<>()),
+                new Book(1, "BookTitle_1", author, new ArrayList<>()),
+                new Book(3, "BookTitle_3", author, new ArrayList<>()));
+
+        var relations = new BookGenreRelations(1);
+        relations.add(2, 3);
+        relations.add(1, 2);
+        relations.add(2, 1);
+        relations.add(1, 1);
+
+        relations.mergeInto(books, genres);
+
+        assertThat(books.get(0).getGenres()).containsExactly(genres.get(1), genres.get(0));
+        assertThat(books.get(1).getGenres()).containsExactly(genres.get(1), genres.get(2));
+        assertThat(books.get(2).getGenres()).isEmpty();
+        assertThat(relations.size()).isEqualTo(4);
+    }
+}
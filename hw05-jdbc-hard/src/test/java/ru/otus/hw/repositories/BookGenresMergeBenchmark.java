@@ -0,0 +1,121 @@
+package ru.otus.hw.repositories;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.otus.hw.models.Author;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Сравнение прежнего объединения через Map<Long, ...> с BookGenreRelations на 10k, 100k и 1M связей
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookGenresMergeBenchmark {
+
+    private static final int GENRES_PER_BOOK = 2;
+
+    private static final int GENRES_COUNT = 50;
+
+    @Param({"10000", "100000", "1000000"})
+    private int relationsCount;
+
+    private List<Genre> genres;
+
+    private List<Book> books;
+
+    private long[][] relationPairs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        genres = new ArrayList<>(GENRES_COUNT);
+        for (long id = 1; id <= GENRES_COUNT; id++) {
+            genres.add(new Genre(id, "Genre_" + id));
+        }
+
+        int booksCount = relationsCount / GENRES_PER_BOOK;
+        books = new ArrayList<>(booksCount);
+        relationPairs = new long[relationsCount][];
+        Author author = new Author(1, "Author_1");
+        int index = 0;
+        for (long bookId = 1; bookId <= booksCount; bookId++) {
+            books.add(new Book(bookId, "BookTitle_" + bookId, author, new ArrayList<>()));
+            for (int i = 0; i < GENRES_PER_BOOK; i++) {
+                long genreId = (bookId + i) % GENRES_COUNT + 1;
+                relationPairs[index++] = new long[]{bookId, genreId};
+            }
+        }
+    }
+
+    // Полный путь прежней реализации: записи BookGenreRelation на каждую строку и Map<Long, List<Long>>
+    @Benchmark
+    public List<Book> boxedMapMerge() {
+        List<BookGenreRelation> relations = new ArrayList<>();
+        for (long[] pair : relationPairs) {
+            relations.add(new BookGenreRelation(pair[0], pair[1]));
+        }
+
+        Map<Long, Genre> genreMap = genres.stream()
+                .collect(Collectors.toMap(Genre::getId, genre -> genre));
+
+        Map<Long, List<Long>> bookGenreRelations = new HashMap<>();
+        for (BookGenreRelation relation : relations) {
+            bookGenreRelations.computeIfAbsent(relation.bookId(), k -> new ArrayList<>())
+                    .add(relation.genreId());
+        }
+
+        for (Book book : books) {
+            List<Long> genreIds = bookGenreRelations.getOrDefault(book.getId(), Collections.emptyList());
+            List<Genre> bookGenres = genreIds.stream()
+                    .map(genreMap::get)
+                    .collect(Collectors.toList());
+            book.setGenres(bookGenres);
+        }
+        return books;
+    }
+
+    @Benchmark
+    public List<Book> primitiveSortedMerge() {
+        BookGenreRelations relations = new BookGenreRelations();
+        for (long[] pair : relationPairs) {
+            relations.add(pair[0], pair[1]);
+        }
+        relations.mergeInto(books, genres);
+        return books;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookGenresMergeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+
+    private record BookGenreRelation(long bookId, long genreId) {
+    }
+}
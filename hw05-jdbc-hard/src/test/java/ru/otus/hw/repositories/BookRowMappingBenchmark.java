@@ -0,0 +1,92 @@
+package ru.otus.hw.repositories;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.otus.hw.models.Author;
+import ru.otus.hw.models.Book;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Чтение 10k книг 50 авторов: колонки по имени и новый Author на строку против BookRowReader
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookRowMappingBenchmark {
+
+    private static final int BOOKS_COUNT = 10_000;
+
+    private static final int AUTHORS_COUNT = 50;
+
+    private static final String BOOKS_SQL = """
+            SELECT b.id, b.title, b.author_id, a.full_name
+            FROM books b
+            JOIN authors a ON b.author_id = a.id
+            """;
+
+    private SingleConnectionDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:mapping_bench;DB_CLOSE_DELAY=-1", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table authors (id bigserial, full_name varchar(255), primary key (id))");
+        jdbcTemplate.execute("""
+                create table books (id bigserial, title varchar(255),
+                author_id bigint references authors (id), primary key (id))""");
+        jdbcTemplate.execute("insert into authors(full_name) select 'Author_' || x from system_range(1, "
+                + AUTHORS_COUNT + ")");
+        jdbcTemplate.execute("insert into books(title, author_id) select 'BookTitle_' || x, mod(x, "
+                + AUTHORS_COUNT + ") + 1 from system_range(1, " + BOOKS_COUNT + ")");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.execute("drop all objects");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<Book> labelLookupMapping() {
+        return jdbcTemplate.query(BOOKS_SQL, (rs, rowNum) -> {
+            Author author = new Author(rs.getLong("author_id"), rs.getString("full_name"));
+            return new Book(rs.getLong("id"), rs.getString("title"), author, new ArrayList<>());
+        });
+    }
+
+    @Benchmark
+    public List<Book> resolvedIndexInterningMapping() {
+        BookRowReader reader = new BookRowReader();
+        return jdbcTemplate.query(BOOKS_SQL, (rs, rowNum) -> reader.readBook(rs));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookRowMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
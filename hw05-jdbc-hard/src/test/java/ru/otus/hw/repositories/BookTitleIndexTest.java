@@ -0,0 +1,105 @@
+package ru.otus.hw.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Индекс названий книг ")
+class BookTitleIndexTest {
+
+    private BookTitleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookTitleIndex();
+        index.put(1, "The Great Gatsby");
+        index.put(2, "Great Expectations");
+        index.put(3, "Война и мир");
+    }
+
+    @DisplayName("должен находить книги по фрагменту названия без учета регистра")
+    @Test
+    void shouldFindByFragmentIgnoringCase() {
+        assertThat(index.search("GREAT", 10)).containsExactly(1L, 2L);
+        assertThat(index.search("at gat", 10)).containsExactly(1L);
+        assertThat(index.search("ВОЙНА", 10)).containsExactly(3L);
+        assertThat(index.search("great gatsby!", 10)).isEmpty();
+    }
+
+    @DisplayName("не должен находить книги, содержащие все триграммы фрагмента не подряд")
+    @Test
+    void shouldVerifyCandidatesByTitle() {
+        index.put(4, "abcd bcde");
+
+        assertThat(index.search("abcde", 10)).isEmpty();
+    }
+
+    @DisplayName("должен искать фрагменты короче триграммы перебором названий")
+    @Test
+    void shouldFindShortFragments() {
+        assertThat(index.search("ex", 10)).containsExactly(2L);
+        assertThat(index.search("и", 10)).containsExactly(3L);
+        assertThat(index.search("", 10)).isEmpty();
+    }
+
+    @DisplayName("должен ограничивать число найденных книг")
+    @Test
+    void shouldLimitResults() {
+        assertThat(index.search("great", 1)).containsExactly(1L);
+        assertThat(index.search("e", 2)).containsExactly(1L, 2L);
+    }
+
+    @DisplayName("должен заменять название при повторном добавлении и удалять книги")
+    @Test
+    void shouldReplaceAndRemoveTitles() {
+        index.put(1, "Tender Is the Night");
+        index.remove(2);
+
+        assertThat(index.search("great", 10)).isEmpty();
+        assertThat(index.search("night", 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @DisplayName("должен давать тот же результат, что и поиск подстроки перебором")
+    @Test
+    void shouldMatchSubstringScan() {
+        Random random = new Random(7);
+        Map<Long, String> titles = new TreeMap<>();
+        BookTitleIndex randomIndex = new BookTitleIndex();
+        for (long id = 200; id >= 1; id--) {
+            String title = randomTitle(random);
+            titles.put(id, title);
+            randomIndex.put(id, title);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            String title = titles.get(1L + random.nextInt(titles.size()));
+            int from = random.nextInt(title.length());
+            String fragment = title.substring(from, Math.min(title.length(), from + 1 + random.nextInt(5)));
+
+            List<Long> expected = titles.entrySet().stream()
+                    .filter(entry -> entry.getValue().toLowerCase(Locale.ROOT)
+                            .contains(fragment.toLowerCase(Locale.ROOT)))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            assertThat(randomIndex.search(fragment, Integer.MAX_VALUE)).as(fragment).isEqualTo(expected);
+        }
+    }
+
+    private static String randomTitle(Random random) {
+        StringBuilder title = new StringBuilder();
+        int length = 3 + random.nextInt(12);
+        for (int i = 0; i < length; i++) {
+            title.append("abcdeABCDE _".charAt(random.nextInt(12)));
+        }
+        return title.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package ru.otus.hw.repositories;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.otus.hw.models.Book;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Поиск по фрагменту названия среди 1M книг в H2: LOWER(title) LIKE '%x%' против индекса триграмм BookTitleIndex.
+// Фрагменты: редкое сочетание слов, частое слово и фрагмент без совпадений (полный просмотр для LIKE)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookTitleSearchBenchmark {
+
+    private static final int BOOKS_COUNT = 1_000_000;
+
+    private static final int WORDS_COUNT = 500;
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private static final int LIMIT = 20;
+
+    private static final String LIKE_SQL = """
+            SELECT id FROM books WHERE LOWER(title) LIKE :pattern ORDER BY id LIMIT :limit
+            """;
+
+    @Param({"night garden", "garden", "qqq"})
+    private String fragment;
+
+    private SingleConnectionDataSource dataSource;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private JdbcBookRepository bookRepository;
+
+    private BookTitleIndex titleIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:title_search_bench;DB_CLOSE_DELAY=-1", true);
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        bookRepository = new JdbcBookRepository(new JdbcGenreRepository(jdbcTemplate), jdbcTemplate,
+                new JdbcAuthorRepository(jdbcTemplate));
+
+        JdbcTemplate jdbc = jdbcTemplate.getJdbcTemplate();
+        jdbc.execute("create table authors (id bigserial, full_name varchar(255), primary key (id))");
+        jdbc.execute("create table genres (id bigserial, name varchar(255), primary key (id))");
+        jdbc.execute("""
+                create table books (id bigserial, title varchar(255),
+                author_id bigint references authors (id), primary key (id))""");
+        jdbc.execute("""
+                create table books_genres (book_id bigint references books(id), genre_id bigint references genres(id),
+                primary key (book_id, genre_id))""");
+        jdbc.execute("insert into authors(full_name) values ('Author_1')");
+        jdbc.execute("insert into genres(name) values ('Genre_1')");
+        insertBooks(jdbc);
+        jdbc.execute("insert into books_genres(book_id, genre_id) select id, 1 from books");
+
+        titleIndex = new BookTitleIndex();
+        jdbc.query("SELECT id, title FROM books", rs -> {
+            titleIndex.put(rs.getLong(1), rs.getString(2));
+        });
+        bookRepository.findAllByTitleContaining(fragment, LIMIT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.getJdbcTemplate().execute("drop all objects");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<Long> likeScanIds() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue("pattern", "%" + fragment.toLowerCase(Locale.ROOT) + "%");
+        params.addValue("limit", LIMIT);
+        return jdbcTemplate.queryForList(LIKE_SQL, params, Long.class);
+    }
+
+    @Benchmark
+    public List<Long> titleIndexIds() {
+        return titleIndex.search(fragment, LIMIT);
+    }
+
+    // Полный путь репозитория: поиск в индексе и загрузка найденных книг с авторами и жанрами
+    @Benchmark
+    public List<Book> repositorySearch() {
+        return bookRepository.findAllByTitleContaining(fragment, LIMIT);
+    }
+
+    // Названия из трех слов словаря; "night garden" встречается примерно в одной книге из 125 000
+    private static void insertBooks(JdbcTemplate jdbc) {
+        List<String> words = new ArrayList<>(WORDS_COUNT);
+        words.add("night");
+        words.add("garden");
+        Random random = new Random(42);
+        while (words.size() < WORDS_COUNT) {
+            StringBuilder word = new StringBuilder();
+            int length = 4 + random.nextInt(6);
+            for (int i = 0; i < length; i++) {
+                word.append((char) ('a' + random.nextInt('q' - 'a')));
+            }
+            words.add(word.toString());
+        }
+
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < BOOKS_COUNT; i++) {
+            String title = words.get(random.nextInt(WORDS_COUNT)) + " " + words.get(random.nextInt(WORDS_COUNT))
+                    + " " + words.get(random.nextInt(WORDS_COUNT));
+            batch.add(new Object[]{title});
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                jdbc.batchUpdate("insert into books(title, author_id) values (?, 1)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookTitleSearchBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
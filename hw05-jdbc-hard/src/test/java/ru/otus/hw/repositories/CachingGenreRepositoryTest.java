@@ -0,0 +1,98 @@
+package ru.otus.hw.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import ru.otus.hw.models.Genre;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Кэширующий репозиторий жанров ")
+@JdbcTest
+@Import({JdbcGenreRepository.class, CachingGenreRepository.class, SqlStatementsCounter.class})
+@TestPropertySource(properties = "library.cache.genres.max-size=4")
+class CachingGenreRepositoryTest {
+
+    @Autowired
+    private CachingGenreRepository repository;
+
+    @Autowired
+    private SqlStatementsCounter sqlStatementsCounter;
+
+    @BeforeEach
+    void setUp() {
+        repository.invalidateAll();
+        sqlStatementsCounter.clear();
+    }
+
+    @DisplayName("должен загружать жанры по id из базы только один раз")
+    @Test
+    void shouldLoadGenresByIdsOnlyOnce() {
+        var statsBefore = repository.stats();
+        var firstGenres = repository.findAllByIds(Set.of(1L, 2L));
+        var secondGenres = repository.findAllByIds(Set.of(1L, 2L));
+
+        assertThat(secondGenres).containsExactlyInAnyOrderElementsOf(firstGenres)
+                .extracting(Genre::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(sqlStatementsCounter.statements()).hasSize(1);
+        assertThat(repository.stats()).matches(stats -> stats.hits() - statsBefore.hits() == 2
+                && stats.misses() - statsBefore.misses() == 2);
+    }
+
+    @DisplayName("должен догружать из базы только отсутствующие в кэше жанры")
+    @Test
+    void shouldLoadOnlyMissingGenres() {
+        repository.findAllByIds(Set.of(1L));
+        sqlStatementsCounter.clear();
+
+        assertThat(repository.findAllByIds(Set.of(1L, 3L))).extracting(Genre::getId)
+                .containsExactlyInAnyOrder(1L, 3L);
+        assertThat(sqlStatementsCounter.statements()).hasSize(1);
+    }
+
+    @DisplayName("должен вытеснять давно не используемые жанры при превышении размера")
+    @Test
+    void shouldEvictLeastRecentlyUsedGenres() {
+        var statsBefore = repository.stats();
+        for (long id = 1; id <= 4; id++) {
+            repository.findAllByIds(Set.of(id));
+        }
+        // Жанр 1 использован последним, поэтому давно не используемым становится жанр 2
+        repository.findAllByIds(Set.of(1L));
+        repository.findAllByIds(Set.of(5L));
+
+        assertThat(repository.stats()).matches(stats -> stats.size() == 4
+                && stats.evictions() - statsBefore.evictions() == 1);
+
+        sqlStatementsCounter.clear();
+        repository.findAllByIds(Set.of(1L));
+        assertThat(sqlStatementsCounter.statements()).isEmpty();
+        repository.findAllByIds(Set.of(2L));
+        assertThat(sqlStatementsCounter.statements()).hasSize(1);
+    }
+
+    @DisplayName("не должен кэшировать полный список, не помещающийся в кэш")
+    @Test
+    void shouldNotCacheFullListLargerThanCache() {
+        repository.findAll();
+        repository.findAll();
+
+        assertThat(sqlStatementsCounter.statements()).hasSize(2);
+    }
+
+    @DisplayName("должен повторно читать жанры после инвалидации")
+    @Test
+    void shouldReloadGenresAfterInvalidation() {
+        repository.findAllByIds(Set.of(1L));
+        repository.invalidate(1L);
+        repository.findAllByIds(Set.of(1L));
+
+        assertThat(sqlStatementsCounter.statements()).hasSize(2);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.otus.hw.repositories;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.otus.hw.models.Genre;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Поиск жанров по наборам id случайного размера в H2:
+// IN-список произвольной длины против дополнения до фиксированных размеров (InClauseBuckets)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenreInListBenchmark {
+
+    private static final int GENRES_COUNT = 10_000;
+
+    private static final int ID_SETS_COUNT = 1024;
+
+    @Param({"32", "300"})
+    private int maxIdsPerLookup;
+
+    private SingleConnectionDataSource dataSource;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private JdbcGenreRepository genreRepository;
+
+    private List<Set<Long>> idSets;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:genres_bench;DB_CLOSE_DELAY=-1", true);
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        genreRepository = new JdbcGenreRepository(jdbcTemplate);
+
+        var jdbc = jdbcTemplate.getJdbcTemplate();
+        jdbc.execute("create table genres (id bigserial, name varchar(255), primary key (id))");
+        jdbc.execute("insert into genres(name) select 'Genre_' || x from system_range(1, " + GENRES_COUNT + ")");
+
+        Random random = new Random(42);
+        idSets = new ArrayList<>(ID_SETS_COUNT);
+        for (int i = 0; i < ID_SETS_COUNT; i++) {
+            int size = 1 + random.nextInt(maxIdsPerLookup);
+            idSets.add(random.longs(size, 1, GENRES_COUNT + 1).boxed().collect(Collectors.toSet()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.getJdbcTemplate().execute("drop all objects");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<Genre> variableInList() {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        parameters.addValue("ids", nextIds());
+        return jdbcTemplate.query("SELECT id, name FROM genres WHERE id IN (:ids)", parameters,
+                (rs, i) -> new Genre(rs.getLong("id"), rs.getString("name")));
+    }
+
+    @Benchmark
+    public List<Genre> bucketedInList() {
+        return genreRepository.findAllByIds(nextIds());
+    }
+
+    private Set<Long> nextIds() {
+        Set<Long> ids = idSets.get(next);
+        next = (next + 1) % ID_SETS_COUNT;
+        return ids;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GenreInListBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -8,6 +8,9 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+import ru.otus.hw.dto.IdRange;
 import ru.otus.hw.models.Author;
 import ru.otus.hw.models.Book;
 import ru.otus.hw.models.Genre;
@@ -19,12 +22,19 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("Репозиторий на основе Jdbc для работы с книгами ")
 @JdbcTest
-@Import({JdbcBookRepository.class, JdbcGenreRepository.class, JdbcAuthorRepository.class})
+@Import({JdbcBookRepository.class, JdbcGenreRepository.class, JdbcAuthorRepository.class,
+        SqlStatementsCounter.class})
 class JdbcBookRepositoryTest {
 
     @Autowired
     private JdbcBookRepository repositoryJdbc;
 
+    @Autowired
+    private SqlStatementsCounter sqlStatementsCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private List<Author> dbAuthors;
 
     private List<Genre> dbGenres;
@@ -58,6 +68,96 @@ class JdbcBookRepositoryTest {
         actualBooks.forEach(System.out::println);
     }
 
+    @DisplayName("должен потоково загружать все книги")
+    @Test
+    void shouldStreamCorrectBooksList() {
+        try (var actualBooks = repositoryJdbc.streamAll()) {
+            assertThat(actualBooks).containsExactlyElementsOf(dbBooks);
+        }
+    }
+
+    @DisplayName("должен потоково загружать книгу без жанров")
+    @Test
+    void shouldStreamBookWithoutGenres() {
+        var savedBook = repositoryJdbc.save(new Book(0, "BookTitle_10500", dbAuthors.get(0), List.of()));
+
+        try (var actualBooks = repositoryJdbc.streamAll()) {
+            assertThat(actualBooks).last().isEqualTo(savedBook);
+        }
+    }
+
+    @DisplayName("должен загружать страницу книг после заданного id")
+    @Test
+    void shouldReturnBooksPageAfterId() {
+        assertThat(repositoryJdbc.findPage(0, 2)).containsExactlyElementsOf(dbBooks.subList(0, 2));
+        assertThat(repositoryJdbc.findPage(2, 2)).containsExactlyElementsOf(dbBooks.subList(2, 3));
+        assertThat(repositoryJdbc.findPage(3, 2)).isEmpty();
+    }
+
+    @DisplayName("должен переиспользовать объекты авторов и жанров в пределах одного запроса")
+    @Test
+    void shouldShareAuthorsAndGenresWithinQuery() {
+        repositoryJdbc.saveAll(List.of(
+                new Book(0, "BookTitle_10500", dbAuthors.get(0), List.of(dbGenres.get(0))),
+                new Book(0, "BookTitle_10501", dbAuthors.get(0), List.of(dbGenres.get(0)))));
+
+        try (var books = repositoryJdbc.streamAll()) {
+            var authorOneBooks = books.filter(book -> book.getAuthor().getId() == 1).toList();
+            assertThat(authorOneBooks).hasSize(3);
+            assertThat(authorOneBooks).extracting(Book::getAuthor)
+                    .allMatch(author -> author == authorOneBooks.get(0).getAuthor());
+            assertThat(authorOneBooks).extracting(book -> book.getGenres().get(0))
+                    .allMatch(genre -> genre == authorOneBooks.get(0).getGenres().get(0));
+        }
+
+        var authorOneBooks = repositoryJdbc.findAll().stream()
+                .filter(book -> book.getAuthor().getId() == 1)
+                .toList();
+        assertThat(authorOneBooks).extracting(Book::getAuthor)
+                .allMatch(author -> author == authorOneBooks.get(0).getAuthor());
+    }
+
+    @DisplayName("должен загружать книги из диапазона id")
+    @Test
+    void shouldReturnBooksByIdRange() {
+        assertThat(repositoryJdbc.findAllByIdRange(2, 4)).containsExactlyElementsOf(dbBooks.subList(1, 3));
+        assertThat(repositoryJdbc.findAllByIdRange(4, 10)).isEmpty();
+    }
+
+    @DisplayName("должен возвращать диапазон id книг")
+    @Test
+    void shouldReturnBooksIdRange() {
+        assertThat(repositoryJdbc.findIdRange()).contains(new IdRange(1, 3));
+    }
+
+    @DisplayName("должен искать книги по фрагменту названия без учета регистра")
+    @Test
+    void shouldFindBooksByTitleFragment() {
+        assertThat(repositoryJdbc.findAllByTitleContaining("title_2", 10))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(dbBooks.get(1));
+        assertThat(repositoryJdbc.findAllByTitleContaining("BOOKTITLE", 2))
+                .extracting(Book::getId)
+                .containsExactly(1L, 2L);
+        assertThat(repositoryJdbc.findAllByTitleContaining("_3", 10))
+                .extracting(Book::getId)
+                .containsExactly(3L);
+        assertThat(repositoryJdbc.findAllByTitleContaining("Gatsby", 10)).isEmpty();
+    }
+
+    @DisplayName("должен добавлять книгу в индекс названий только после фиксации транзакции")
+    @Test
+    void shouldIndexTitleOnlyAfterCommit() {
+        assertThat(repositoryJdbc.findAllByTitleContaining("BookTitle", 10)).hasSize(3);
+        repositoryJdbc.save(new Book(0, "BookTitle_RolledBack", dbAuthors.get(0), dbGenres.subList(0, 1)));
+        assertThat(repositoryJdbc.findAllByTitleContaining("RolledBack", 10)).isEmpty();
+
+        TestTransaction.end();
+
+        assertThat(repositoryJdbc.findAllByTitleContaining("RolledBack", 10)).isEmpty();
+        assertThat(repositoryJdbc.findAllByTitleContaining("BookTitle", 10)).hasSize(3);
+    }
+
     @DisplayName("должен сохранять новую книгу")
     @Test
     void shouldSaveNewBook() {
@@ -74,6 +174,40 @@ class JdbcBookRepositoryTest {
                 .isEqualTo(returnedBook);
     }
 
+    @DisplayName("должен пакетно сохранять новые и измененные книги")
+    @Test
+    void shouldSaveAllBooks() {
+        var newBooks = List.of(
+                new Book(0, "BookTitle_10500", dbAuthors.get(0), List.of(dbGenres.get(0), dbGenres.get(2))),
+                new Book(0, "BookTitle_10501", dbAuthors.get(1), List.of(dbGenres.get(3))));
+        var updatedBook = new Book(1L, "BookTitle_10502", dbAuthors.get(2), List.of(dbGenres.get(5)));
+
+        var returnedBooks = repositoryJdbc.saveAll(List.of(newBooks.get(0), updatedBook, newBooks.get(1)));
+
+        assertThat(returnedBooks).hasSize(3).allMatch(book -> book.getId() > 0);
+        assertThat(newBooks.get(0).getId()).isNotEqualTo(newBooks.get(1).getId());
+        returnedBooks.forEach(book -> assertThat(repositoryJdbc.findById(book.getId()))
+                .isPresent()
+                .get()
+                .isEqualTo(book));
+    }
+
+    @DisplayName("должен удалять связи с жанрами пакета книг запросом с IN фиксированного размера")
+    @Test
+    void shouldRemoveGenresRelationsOfSavedBooksInBuckets() {
+        var updatedBooks = dbBooks.stream()
+                .map(book -> new Book(book.getId(), book.getTitle(), book.getAuthor(), List.of(dbGenres.get(5))))
+                .toList();
+
+        sqlStatementsCounter.clear();
+        repositoryJdbc.saveAll(updatedBooks);
+
+        assertThat(sqlStatementsCounter.statements())
+                .filteredOn(sql -> sql.startsWith("DELETE FROM BOOKS_GENRES"))
+                .containsExactly("DELETE FROM BOOKS_GENRES WHERE BOOK_ID IN (?, ?, ?, ?)");
+        updatedBooks.forEach(book -> assertThat(repositoryJdbc.findById(book.getId())).get().isEqualTo(book));
+    }
+
     @DisplayName("должен сохранять измененную книгу")
     @Test
     void shouldSaveUpdatedBook() {
@@ -96,12 +230,111 @@ class JdbcBookRepositoryTest {
                 .isEqualTo(returnedBook);
     }
 
+    @DisplayName("должен изменять только разницу жанров, не обновляя неизменную строку книги")
+    @Test
+    void shouldUpdateOnlyChangedGenres() {
+        var book = new Book(1L, "BookTitle_1", dbAuthors.get(0), List.of(dbGenres.get(1), dbGenres.get(2)));
+
+        sqlStatementsCounter.clear();
+        repositoryJdbc.save(book);
+
+        assertThat(sqlStatementsCounter.statements()).hasSize(4);
+        assertThat(sqlStatementsCounter.count("UPDATE books")).isZero();
+        assertThat(sqlStatementsCounter.count("DELETE FROM books_genres")).isEqualTo(1);
+        assertThat(sqlStatementsCounter.count("INSERT INTO books_genres")).isEqualTo(1);
+        assertThat(repositoryJdbc.findById(1L)).get().isEqualTo(book);
+    }
+
+    @DisplayName("должен удалять снятые с книги жанры запросом с IN фиксированного размера")
+    @Test
+    void shouldRemoveGenresDiffInBuckets() {
+        var book = new Book(1L, "BookTitle_1", dbAuthors.get(0), List.of(dbGenres.get(5)));
+        assertThat(dbBooks.get(0).getGenres()).hasSize(2).doesNotContain(dbGenres.get(5));
+
+        sqlStatementsCounter.clear();
+        repositoryJdbc.save(book);
+
+        assertThat(sqlStatementsCounter.statements())
+                .filteredOn(sql -> sql.startsWith("DELETE FROM BOOKS_GENRES"))
+                .containsExactly("DELETE FROM BOOKS_GENRES WHERE BOOK_ID = ? AND GENRE_ID IN (?, ?, ?, ?)");
+        assertThat(repositoryJdbc.findById(1L)).get().isEqualTo(book);
+    }
+
+    @DisplayName("должен обновлять только строку книги при неизменных жанрах")
+    @Test
+    void shouldUpdateOnlyBookRowWhenGenresAreSame() {
+        var book = new Book(1L, "BookTitle_10500", dbAuthors.get(0), dbBooks.get(0).getGenres());
+
+        sqlStatementsCounter.clear();
+        repositoryJdbc.save(book);
+
+        assertThat(sqlStatementsCounter.statements()).hasSize(3);
+        assertThat(sqlStatementsCounter.count("UPDATE books")).isEqualTo(1);
+        assertThat(sqlStatementsCounter.count("DELETE FROM books_genres")).isZero();
+        assertThat(sqlStatementsCounter.count("INSERT INTO books_genres")).isZero();
+        assertThat(repositoryJdbc.findById(1L)).get().isEqualTo(book);
+    }
+
+    @DisplayName("не должен ничего изменять при сохранении неизменной книги")
+    @Test
+    void shouldNotWriteUnchangedBook() {
+        sqlStatementsCounter.clear();
+        repositoryJdbc.save(dbBooks.get(0));
+
+        assertThat(sqlStatementsCounter.statements()).hasSize(2)
+                .allMatch(sql -> sql.startsWith("SELECT"));
+    }
+
     @DisplayName("должен удалять книгу по id ")
     @Test
     void shouldDeleteBook() {
         assertThat(repositoryJdbc.findById(1L)).isPresent();
+        sqlStatementsCounter.clear();
         repositoryJdbc.deleteById(1L);
+        assertThat(sqlStatementsCounter.statements()).hasSize(1);
         assertThat(repositoryJdbc.findById(1L)).isEmpty();
+        assertThat(countGenresRelationsOf(1L)).isZero();
+    }
+
+    @DisplayName("должен удалять книги по набору id одним запросом вместе со связями с жанрами")
+    @Test
+    void shouldDeleteBooksByIds() {
+        sqlStatementsCounter.clear();
+        assertThat(repositoryJdbc.deleteAllByIds(List.of(1L, 3L, 100L))).isEqualTo(2);
+        assertThat(sqlStatementsCounter.statements()).hasSize(1);
+
+        assertThat(repositoryJdbc.findAll()).extracting(Book::getId).containsExactly(2L);
+        assertThat(countGenresRelationsOf(1L) + countGenresRelationsOf(3L)).isZero();
+    }
+
+    @DisplayName("должен удалять книги автора одним DELETE вместе со связями с жанрами")
+    @Test
+    void shouldDeleteBooksByAuthorId() {
+        sqlStatementsCounter.clear();
+        assertThat(repositoryJdbc.deleteByAuthorId(2L)).isEqualTo(1);
+        assertThat(sqlStatementsCounter.statements()).hasSize(2);
+        assertThat(sqlStatementsCounter.count("DELETE FROM books")).isEqualTo(1);
+
+        assertThat(repositoryJdbc.findAll()).extracting(Book::getId).containsExactly(1L, 3L);
+        assertThat(countGenresRelationsOf(2L)).isZero();
+        assertThat(repositoryJdbc.deleteByAuthorId(2L)).isZero();
+    }
+
+    @DisplayName("не должен удалять книги из индекса названий при откате транзакции")
+    @Test
+    void shouldKeepTitleIndexOnRolledBackDelete() {
+        assertThat(repositoryJdbc.findAllByTitleContaining("BookTitle", 10)).hasSize(3);
+        repositoryJdbc.deleteByAuthorId(1L);
+        repositoryJdbc.deleteAllByIds(List.of(2L));
+
+        TestTransaction.end();
+
+        assertThat(repositoryJdbc.findAllByTitleContaining("BookTitle", 10)).extracting(Book::getId)
+                .containsExactly(1L, 2L, 3L);
+    }
+
+    private long countGenresRelationsOf(long bookId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books_genres WHERE book_id = ?", Long.class, bookId);
     }
 
     private static List<Author> getDbAuthors() {
@@ -8,20 +8,25 @@ import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.Import;
 import ru.otus.hw.models.Genre;
 
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("Репозиторий на основе Jdbc для работы с жанрами ")
 @JdbcTest
-@Import(JdbcGenreRepository.class)
+@Import({JdbcGenreRepository.class, SqlStatementsCounter.class})
 class JdbcGenreRepositoryTest {
 
     @Autowired
     private JdbcGenreRepository repositoryJdbc;
 
+    @Autowired
+    private SqlStatementsCounter sqlStatementsCounter;
+
     private List<Genre> dbGenres;
 
     @BeforeEach
@@ -49,13 +54,43 @@ class JdbcGenreRepositoryTest {
         );
         var genreIds = expectedGenres.stream()
                 .map(Genre::getId)
-                .collect(java.util.stream.Collectors.toSet());
+                .collect(Collectors.toSet());
 
         var actualGenres = repositoryJdbc.findAllByIds(genreIds);
 
         assertThat(actualGenres).containsExactlyInAnyOrderElementsOf(expectedGenres);
     }
 
+    @DisplayName("должен использовать ограниченный набор форм запроса для разного числа id")
+    @Test
+    void shouldUseBucketedQueryShapes() {
+        sqlStatementsCounter.clear();
+        for (long size = 1; size <= 20; size++) {
+            var ids = LongStream.rangeClosed(1, size).boxed().collect(Collectors.toSet());
+            assertThat(repositoryJdbc.findAllByIds(ids)).hasSize((int) Math.min(size, dbGenres.size()));
+        }
+
+        assertThat(sqlStatementsCounter.statements()).hasSize(20)
+                .containsOnly(inQueryOf(1), inQueryOf(4), inQueryOf(16), inQueryOf(64));
+    }
+
+    @DisplayName("должен разбивать большой набор id на несколько запросов")
+    @Test
+    void shouldSplitLargeIdsSetIntoChunks() {
+        var ids = LongStream.rangeClosed(1, 300).boxed().collect(Collectors.toSet());
+
+        sqlStatementsCounter.clear();
+        var actualGenres = repositoryJdbc.findAllByIds(ids);
+
+        assertThat(actualGenres).containsExactlyInAnyOrderElementsOf(dbGenres);
+        assertThat(sqlStatementsCounter.statements()).containsExactly(inQueryOf(256), inQueryOf(64));
+    }
+
+    private static String inQueryOf(int parametersCount) {
+        return "SELECT ID, NAME FROM GENRES WHERE ID IN (%s)".formatted(String.join(", ",
+                Collections.nCopies(parametersCount, "?")));
+    }
+
     private static List<Genre> getDbGenres() {
         return IntStream.range(1, 7).boxed()
                 .map(id -> new Genre(id, "Genre_" + id))
@@ -0,0 +1,38 @@
+package ru.otus.hw.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Таблица переиспользуемых объектов с ключами long ")
+class LongKeyInternerTest {
+
+    @DisplayName("должна находить все сохраненные значения после расширения")
+    @Test
+    void shouldFindValuesAfterResize() {
+        var interner = new LongKeyInterner<String>(1000);
+        for (long key = -100; key < 100; key++) {
+            interner.put(key * 31, "value_" + key);
+        }
+
+        assertThat(interner.size()).isEqualTo(200);
+        for (long key = -100; key < 100; key++) {
+            assertThat(interner.get(key * 31)).isEqualTo("value_" + key);
+        }
+        assertThat(interner.get(1)).isNull();
+    }
+
+    @DisplayName("должна очищаться при достижении предельного размера")
+    @Test
+    void shouldClearWhenFull() {
+        var interner = new LongKeyInterner<String>(4);
+        for (long key = 1; key <= 5; key++) {
+            interner.put(key, "value_" + key);
+        }
+
+        assertThat(interner.size()).isEqualTo(1);
+        assertThat(interner.get(1)).isNull();
+        assertThat(interner.get(5)).isEqualTo("value_5");
+    }
+}
@@ -0,0 +1,235 @@
+package ru.otus.hw.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.otus.hw.models.Author;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Выполняет EXPLAIN в H2 для каждого запроса, выданного репозиториями, и проверяет, что таблицы читаются по индексам.
+// Полный просмотр допускается только для ведущей таблицы в операциях, возвращающих все строки
+@DisplayName("Планы запросов Jdbc репозиториев ")
+@JdbcTest
+@Import({JdbcBookRepository.class, JdbcGenreRepository.class, JdbcAuthorRepository.class,
+        SqlStatementsCounter.class})
+class QueryPlansTest {
+
+    private static final String TABLE_SCAN_MARKER = ".tableScan";
+
+    private static final String TITLE_INDEX_LOAD_SQL = "SELECT ID, TITLE FROM BOOKS";
+
+    @Autowired
+    private JdbcBookRepository bookRepository;
+
+    @Autowired
+    private JdbcAuthorRepository authorRepository;
+
+    @Autowired
+    private JdbcGenreRepository genreRepository;
+
+    @Autowired
+    private SqlStatementsCounter sqlStatementsCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Author author;
+
+    private List<Genre> genres;
+
+    @BeforeEach
+    void setUp() {
+        author = new Author(1, "Author_1");
+        genres = List.of(new Genre(1, "Genre_1"), new Genre(2, "Genre_2"));
+    }
+
+    @DisplayName("поиск книги по id должен использовать индексы")
+    @Test
+    void bookFindByIdShouldUseIndexes() {
+        assertNoTableScans(() -> bookRepository.findById(1L));
+    }
+
+    @DisplayName("страница книг должна использовать индексы")
+    @Test
+    void bookFindPageShouldUseIndexes() {
+        assertNoTableScans(() -> bookRepository.findPage(1L, 2));
+    }
+
+    @DisplayName("книги из диапазона id должны читаться по индексам")
+    @Test
+    void bookFindAllByIdRangeShouldUseIndexes() {
+        assertNoTableScans(() -> bookRepository.findAllByIdRange(1L, 3L));
+    }
+
+    @DisplayName("диапазон id книг должен читаться из индекса первичного ключа")
+    @Test
+    void bookFindIdRangeShouldUsePrimaryKeyIndex() {
+        // MIN и MAX по индексированному столбцу H2 берет из первой и последней записи индекса (direct lookup)
+        assertThat(explainStatementsOf(() -> bookRepository.findIdRange())).singleElement()
+                .satisfies(plan -> assertThat(plan).contains("direct lookup").doesNotContain(TABLE_SCAN_MARKER));
+    }
+
+    @DisplayName("вставка книги должна использовать индексы")
+    @Test
+    void bookInsertShouldUseIndexes() {
+        assertNoTableScans(() -> bookRepository.save(new Book(0, "BookTitle_10500", author, genres)));
+    }
+
+    @DisplayName("изменение книги должно использовать индексы")
+    @Test
+    void bookUpdateShouldUseIndexes() {
+        assertNoTableScans(() -> bookRepository.save(new Book(1L, "BookTitle_10500", author,
+                List.of(genres.get(1), new Genre(3, "Genre_3")))));
+    }
+
+    @DisplayName("пакетное сохранение книг должно использовать индексы")
+    @Test
+    void bookSaveAllShouldUseIndexes() {
+        assertNoTableScans(() -> bookRepository.saveAll(List.of(
+                new Book(0, "BookTitle_10500", author, genres),
+                new Book(2L, "BookTitle_10501", author, genres))));
+    }
+
+    @DisplayName("удаление книги должно использовать индексы")
+    @Test
+    void bookDeleteByIdShouldUseIndexes() {
+        assertNoTableScans(() -> bookRepository.deleteById(1L));
+    }
+
+    @DisplayName("удаление книг по набору id должно использовать индексы")
+    @Test
+    void bookDeleteAllByIdsShouldUseIndexes() {
+        assertNoTableScans(() -> bookRepository.deleteAllByIds(List.of(1L, 2L)));
+    }
+
+    @DisplayName("удаление книг автора должно использовать индексы")
+    @Test
+    void bookDeleteByAuthorIdShouldUseIndexes() {
+        assertNoTableScans(() -> bookRepository.deleteByAuthorId(1L));
+    }
+
+    @DisplayName("список всех книг должен просматривать только ведущие таблицы")
+    @Test
+    void bookFindAllShouldScanOnlyDrivingTables() {
+        assertOnlyDrivingTableScans(() -> bookRepository.findAll());
+    }
+
+    @DisplayName("поток всех книг должен просматривать только ведущую таблицу")
+    @Test
+    void bookStreamAllShouldScanOnlyDrivingTable() {
+        assertOnlyDrivingTableScans(() -> {
+            try (var books = bookRepository.streamAll()) {
+                books.forEach(book -> { });
+            }
+        });
+    }
+
+    // Индекс названий загружается чтением всей таблицы книг, и только при первом поиске в контексте,
+    // поэтому этот запрос может и не попасть в проверку. Выборка найденных книг по IN всегда идет по индексам
+    @DisplayName("поиск книг по фрагменту названия должен использовать индексы")
+    @Test
+    void bookFindAllByTitleContainingShouldUseIndexes() {
+        sqlStatementsCounter.clear();
+        bookRepository.findAllByTitleContaining("BookTitle", 10);
+        List<String> statements = sqlStatementsCounter.statements();
+
+        assertThat(statements).anyMatch(sql -> sql.contains("WHERE B.ID IN ("));
+        for (String sql : statements) {
+            String plan = explain(sql);
+            if (sql.equals(TITLE_INDEX_LOAD_SQL)) {
+                assertThat(countTableScans(plan)).as(plan).isLessThanOrEqualTo(1);
+            } else {
+                assertThat(plan).doesNotContain(TABLE_SCAN_MARKER);
+            }
+        }
+    }
+
+    @DisplayName("поиск автора по id должен использовать индексы")
+    @Test
+    void authorFindByIdShouldUseIndexes() {
+        assertNoTableScans(() -> authorRepository.findById(1L));
+    }
+
+    @DisplayName("поиск авторов по id должен использовать индексы")
+    @Test
+    void authorFindAllByIdsShouldUseIndexes() {
+        assertNoTableScans(() -> authorRepository.findAllByIds(Set.of(1L, 2L)));
+    }
+
+    @DisplayName("список всех авторов должен просматривать только ведущую таблицу")
+    @Test
+    void authorFindAllShouldScanOnlyDrivingTable() {
+        assertOnlyDrivingTableScans(() -> authorRepository.findAll());
+    }
+
+    @DisplayName("поиск жанров по id должен использовать индексы")
+    @Test
+    void genreFindAllByIdsShouldUseIndexes() {
+        assertNoTableScans(() -> genreRepository.findAllByIds(Set.of(1L, 2L)));
+    }
+
+    @DisplayName("список всех жанров должен просматривать только ведущую таблицу")
+    @Test
+    void genreFindAllShouldScanOnlyDrivingTable() {
+        assertOnlyDrivingTableScans(() -> genreRepository.findAll());
+    }
+
+    private void assertNoTableScans(Runnable operation) {
+        for (String plan : explainStatementsOf(operation)) {
+            assertThat(plan).doesNotContain(TABLE_SCAN_MARKER);
+        }
+    }
+
+    private void assertOnlyDrivingTableScans(Runnable operation) {
+        for (String plan : explainStatementsOf(operation)) {
+            assertThat(countTableScans(plan)).as(plan).isLessThanOrEqualTo(1);
+        }
+    }
+
+    private List<String> explainStatementsOf(Runnable operation) {
+        sqlStatementsCounter.clear();
+        operation.run();
+        List<String> statements = sqlStatementsCounter.statements();
+        assertThat(statements).isNotEmpty();
+        return statements.stream().map(this::explain).toList();
+    }
+
+    // Все параметры подставляются как 1: для планировщика H2 важна форма запроса, а не значения
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+            int parametersCount = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parametersCount; i++) {
+                statement.setLong(i, 1L);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append(System.lineSeparator());
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private static int countTableScans(String plan) {
+        int count = 0;
+        int index = plan.indexOf(TABLE_SCAN_MARKER);
+        while (index >= 0) {
+            count++;
+            index = plan.indexOf(TABLE_SCAN_MARKER, index + TABLE_SCAN_MARKER.length());
+        }
+        return count;
+    }
+}
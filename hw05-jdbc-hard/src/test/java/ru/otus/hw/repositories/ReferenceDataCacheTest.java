@@ -0,0 +1,74 @@
+package ru.otus.hw.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.otus.hw.models.Genre;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Кэш справочных данных ")
+class ReferenceDataCacheTest {
+
+    private final ReferenceDataCache<Genre> cache = new ReferenceDataCache<>("genres", 10, Genre::getId);
+
+    @DisplayName("должен отдавать закэшированные значения, пока другой ключ загружается из базы")
+    @Test
+    void shouldServeCachedValuesWhileAnotherKeyIsLoading() throws Exception {
+        cache.get(1L, id -> Optional.of(new Genre(id, "Genre_1")));
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        var slowLoad = CompletableFuture.supplyAsync(() -> cache.get(2L, id -> {
+            loadStarted.countDown();
+            await(releaseLoad);
+            return Optional.of(new Genre(id, "Genre_2"));
+        }));
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        var cachedRead = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> Optional.empty()));
+        assertThat(cachedRead.get(5, TimeUnit.SECONDS)).map(Genre::getName).contains("Genre_1");
+
+        releaseLoad.countDown();
+        assertThat(slowLoad.get(5, TimeUnit.SECONDS)).map(Genre::getName).contains("Genre_2");
+    }
+
+    @DisplayName("должен возвращать один экземпляр значения, загруженного параллельно несколькими потоками")
+    @Test
+    void shouldKeepFirstPublishedValue() {
+        var first = cache.get(1L, id -> Optional.of(new Genre(id, "Genre_1")));
+        cache.invalidateAll();
+        var loadedConcurrently = cache.get(1L, id -> {
+            // Пока идет эта загрузка, другой вызов успевает загрузить и опубликовать тот же ключ
+            cache.get(id, otherId -> first);
+            return Optional.of(new Genre(id, "Genre_1"));
+        });
+
+        assertThat(loadedConcurrently).get().isSameAs(first.orElseThrow());
+    }
+
+    @DisplayName("не должен кэшировать значение, загрузка которого началась до инвалидации")
+    @Test
+    void shouldNotPublishValueLoadedBeforeInvalidation() {
+        cache.get(1L, id -> {
+            cache.invalidate(id);
+            return Optional.of(new Genre(id, "Stale"));
+        });
+
+        var reloaded = cache.get(1L, id -> Optional.of(new Genre(id, "Fresh")));
+
+        assertThat(reloaded).map(Genre::getName).contains("Fresh");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.otus.hw.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.otus.hw.converters.BookExportConverter;
+import ru.otus.hw.dto.ExportFormat;
+import ru.otus.hw.dto.ExportProgress;
+import ru.otus.hw.dto.IdRange;
+import ru.otus.hw.models.Author;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
+import ru.otus.hw.repositories.BookRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Сервис выгрузки каталога ")
+class BookExportServiceImplTest {
+
+    private static final int PARALLELISM = 4;
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+
+    private final List<ExportProgress> progress = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    private Path tempDir;
+
+    @DisplayName("должен писать части по порядку id, даже если они прочитаны в другом порядке")
+    @Test
+    void shouldWriteChunksInIdOrderWhenReadOutOfOrder() throws IOException {
+        var ids = LongStream.rangeClosed(1, 40).toArray();
+        // Первые части читаются дольше последних, поэтому завершаются позже
+        Queue<Long> completedChunks = givenCatalog(ids, fromId -> (40 - fromId) / 2);
+
+        var result = export(5, ExportFormat.CSV);
+
+        assertThat(exportedIds(ExportFormat.CSV)).containsExactly(LongStream.of(ids).boxed().toArray(Long[]::new));
+        assertThat(new ArrayList<>(completedChunks)).isNotEqualTo(completedChunks.stream().sorted().toList());
+        assertThat(result).matches(p -> p.chunksDone() == 8 && p.chunksTotal() == 8 && p.rows() == 40);
+        assertThat(progress).extracting(ExportProgress::chunksDone).containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+        assertThat(progress).last().usingRecursiveComparison().ignoringFields("elapsed").isEqualTo(result);
+    }
+
+    @DisplayName("должен создавать пустой файл для пустого каталога")
+    @Test
+    void shouldExportEmptyCatalog() throws IOException {
+        when(bookRepository.findIdRange()).thenReturn(Optional.empty());
+
+        var result = export(5, ExportFormat.JSONL);
+
+        assertThat(Files.size(tempDir.resolve("books.jsonl"))).isZero();
+        assertThat(result).matches(p -> p.chunksTotal() == 0 && p.rows() == 0 && p.bytes() == 0);
+        assertThat(progress).isEmpty();
+        verify(bookRepository, never()).findAllByIdRange(anyLong(), anyLong());
+    }
+
+    @DisplayName("должен выгружать разреженные id с пустыми частями между ними и на границах частей")
+    @Test
+    void shouldExportSparseIds() throws IOException {
+        // 103 лежит ровно на границе частей [3, 103) и [103, 203), между 250 и 999 - пустые части
+        long[] ids = {3, 4, 102, 103, 250, 999, 1000};
+        givenCatalog(ids, fromId -> 0);
+
+        var result = export(100, ExportFormat.JSONL);
+
+        assertThat(exportedIds(ExportFormat.JSONL)).containsExactly(3L, 4L, 102L, 103L, 250L, 999L, 1000L);
+        assertThat(result).matches(p -> p.chunksDone() == 10 && p.chunksTotal() == 10 && p.rows() == ids.length);
+        assertThat(progress).extracting(ExportProgress::rows).containsExactly(3L, 4L, 5L, 5L, 5L, 5L, 5L, 5L, 5L, 7L);
+    }
+
+    private ExportProgress export(long chunkSize, ExportFormat format) {
+        var service = new BookExportServiceImpl(bookRepository, new BookExportConverter(), PARALLELISM, chunkSize);
+        return service.export(fileFor(format), format, progress::add);
+    }
+
+    // Каталог в памяти: findAllByIdRange отдает книги из [fromId, toId) после задержки delayMillis(fromId)
+    private Queue<Long> givenCatalog(long[] ids, LongUnaryOperator delayMillis) {
+        Queue<Long> completedChunks = new ConcurrentLinkedQueue<>();
+        when(bookRepository.findIdRange()).thenReturn(Optional.of(new IdRange(ids[0], ids[ids.length - 1])));
+        when(bookRepository.findAllByIdRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long fromId = invocation.getArgument(0);
+            long toId = invocation.getArgument(1);
+            Thread.sleep(delayMillis.applyAsLong(fromId));
+            completedChunks.add(fromId);
+            return LongStream.of(ids)
+                    .filter(id -> id >= fromId && id < toId)
+                    .mapToObj(id -> new Book(id, "Title_" + id, new Author(1, "Author"),
+                            List.of(new Genre(1, "Genre"))))
+                    .toList();
+        });
+        return completedChunks;
+    }
+
+    private List<Long> exportedIds(ExportFormat format) throws IOException {
+        return Files.readAllLines(fileFor(format)).stream()
+                .map(line -> line.startsWith("{\"id\":") ? line.substring(6, line.indexOf(',')) : line.split(";")[0])
+                .map(Long::valueOf)
+                .toList();
+    }
+
+    private Path fileFor(ExportFormat format) {
+        return tempDir.resolve(format == ExportFormat.CSV ? "books.csv" : "books.jsonl");
+    }
+}
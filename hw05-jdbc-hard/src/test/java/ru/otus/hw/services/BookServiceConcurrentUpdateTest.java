@@ -0,0 +1,96 @@
+package ru.otus.hw.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
+import ru.otus.hw.repositories.JdbcAuthorRepository;
+import ru.otus.hw.repositories.JdbcBookRepository;
+import ru.otus.hw.repositories.JdbcGenreRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Изменения должны фиксироваться и быть видны другим потокам, поэтому тест выполняется вне тестовой транзакции
+@DisplayName("Сервис книг при параллельных изменениях одной книги ")
+@JdbcTest
+@Import({BookServiceImpl.class, JdbcBookRepository.class, JdbcGenreRepository.class, JdbcAuthorRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookServiceConcurrentUpdateTest {
+
+    private static final int THREADS = 4;
+
+    private static final int ROUNDS = 20;
+
+    // Наборы жанров пересекаются, поэтому разницы параллельных изменений конфликтуют друг с другом
+    private static final List<Set<Long>> GENRES_IDS = List.of(
+            Set.of(1L, 2L), Set.of(2L, 3L), Set.of(3L, 4L), Set.of(4L, 1L));
+
+    @Autowired
+    private BookService bookService;
+
+    private long bookId;
+
+    @BeforeEach
+    void setUp() {
+        bookId = bookService.insert("ConcurrentTitle", 1L, Set.of(5L, 6L)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookService.deleteById(bookId);
+    }
+
+    @DisplayName("должен применять параллельные изменения по очереди, целиком и без ошибок")
+    @Test
+    void shouldApplyConcurrentUpdatesOneAfterAnother() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                runRound(executor, round);
+
+                // Книга целиком соответствует одному из изменений: название и жанры от одного и того же потока
+                Book book = bookService.findById(bookId).orElseThrow();
+                int winner = Integer.parseInt(book.getTitle().substring(book.getTitle().lastIndexOf('_') + 1));
+                Set<Long> genresIds = book.getGenres().stream().map(Genre::getId).collect(Collectors.toSet());
+                assertThat(genresIds).isEqualTo(GENRES_IDS.get(winner));
+                assertThat(book.getAuthor().getId()).isEqualTo(winner % 3 + 1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void runRound(ExecutorService executor, int round) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Book>> updates = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int index = thread;
+            updates.add(executor.submit(() -> {
+                start.await();
+                return bookService.update(bookId, "Round_%d_%d".formatted(round, index),
+                        index % 3 + 1, GENRES_IDS.get(index));
+            }));
+        }
+        start.countDown();
+        for (Future<Book> update : updates) {
+            update.get(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.otus.hw.commands;
 import lombok.RequiredArgsConstructor;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
 import ru.otus.hw.converters.BookConverter;
 import ru.otus.hw.services.BookService;
 
@@ -20,11 +21,22 @@ public class BookCommands {
 
     @ShellMethod(value = "Find all books", key = "ab")
     public String findAllBooks() {
-        return bookService.findAll().stream()
+        return bookService.findAllDtos().stream()
                 .map(bookConverter::bookToString)
                 .collect(Collectors.joining("," + System.lineSeparator()));
     }
 
+    // abcc - подсчет GROUP BY по комментариям, abcc --stored - чтение столбца books.comments_count
+    @ShellMethod(value = "Find all books with comments counts", key = "abcc")
+    public String findAllBooksWithCommentCounts(@ShellOption(defaultValue = "false") boolean stored) {
+        var books = stored
+                ? bookService.findAllWithStoredCommentCounts()
+                : bookService.findAllWithCommentCounts();
+        return books.stream()
+                .map(bookConverter::bookCommentsCountToString)
+                .collect(Collectors.joining("," + System.lineSeparator()));
+    }
+
     @ShellMethod(value = "Find book by id", key = "bbid")
     public String findBookById(long id) {
         return bookService.findById(id)
@@ -0,0 +1,32 @@
+package ru.otus.hw.commands;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import ru.otus.hw.services.CacheService;
+
+import java.util.stream.Collectors;
+
+@SuppressWarnings({"SpellCheckingInspection", "unused"})
+@RequiredArgsConstructor
+@ShellComponent
+public class CacheCommands {
+
+    private final CacheService cacheService;
+
+    @ShellMethod(value = "Show second-level and query cache statistics", key = "cst")
+    public String showCacheStats() {
+        var regions = cacheService.findAllStats().stream()
+                .map(stats -> "%s: hits %d, misses %d, puts %d, hit ratio %.2f".formatted(
+                        stats.name(), stats.hits(), stats.misses(), stats.puts(), stats.hitRatio()))
+                .collect(Collectors.joining(System.lineSeparator()));
+        return regions + System.lineSeparator()
+                + "Prepared statements: %d".formatted(cacheService.preparedStatementsCount());
+    }
+
+    @ShellMethod(value = "Evict all second-level and query cache regions", key = "ccl")
+    public String invalidateCaches() {
+        cacheService.invalidateAll();
+        return "Caches invalidated";
+    }
+}
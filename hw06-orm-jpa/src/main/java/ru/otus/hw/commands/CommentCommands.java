@@ -1,11 +1,19 @@
 package ru.otus.hw.commands;
 
 import lombok.RequiredArgsConstructor;
+import org.jline.terminal.Terminal;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
 import ru.otus.hw.converters.CommentConverter;
 import ru.otus.hw.services.CommentService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @SuppressWarnings({"SpellCheckingInspection", "unused"})
@@ -13,10 +21,14 @@ import java.util.stream.Collectors;
 @ShellComponent
 public class CommentCommands {
 
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
     private final CommentService commentService;
 
     private final CommentConverter commentConverter;
 
+    private final Terminal terminal;
+
     @ShellMethod(value = "Find all comments by book id", key = "acbi")
     public String findAllCommentsByBookId(long bookId) {
         return commentService.findAllByBookId(bookId).stream()
@@ -24,6 +36,39 @@ public class CommentCommands {
                 .collect(Collectors.joining("," + System.lineSeparator()));
     }
 
+    // acbp 1 0 20, затем acbp 1 <id последнего комментария> 20
+    @ShellMethod(value = "Find page of comments by book id after given comment id", key = "acbp")
+    public String findCommentsPageByBookId(long bookId, @ShellOption(defaultValue = "0") long afterId,
+                                           @ShellOption(defaultValue = "20") int limit) {
+        var comments = commentService.findPageByBookId(bookId, afterId, limit);
+        if (comments.isEmpty()) {
+            return "No comments after id %d".formatted(afterId);
+        }
+        var page = comments.stream()
+                .map(commentConverter::commentToString)
+                .collect(Collectors.joining("," + System.lineSeparator()));
+        var lastId = comments.get(comments.size() - 1).getId();
+        return page + System.lineSeparator() + "Next page: acbp %d %d %d".formatted(bookId, lastId, limit);
+    }
+
+    // Печатает комментарии по мере чтения, не собирая их в список
+    @ShellMethod(value = "Stream all comments by book id", key = "acbs")
+    public String streamCommentsByBookId(long bookId) {
+        var writer = terminal.writer();
+        long count = commentService.forEachByBookId(bookId,
+                comment -> writer.println(commentConverter.commentToString(comment)));
+        writer.flush();
+        return "Printed %d comments".formatted(count);
+    }
+
+    // lcbi 1 5
+    @ShellMethod(value = "Find latest comments by book id", key = "lcbi")
+    public String findLatestCommentsByBookId(long bookId, @ShellOption(defaultValue = "10") int limit) {
+        return commentService.findLatestByBookId(bookId, limit).stream()
+                .map(commentConverter::commentToString)
+                .collect(Collectors.joining("," + System.lineSeparator()));
+    }
+
     @ShellMethod(value = "Find comment by id", key = "cbid")
     public String findCommentById(long id) {
         return commentService.findById(id)
@@ -37,6 +82,29 @@ public class CommentCommands {
         return commentConverter.commentToString(savedComment);
     }
 
+    // Файл с текстом одного комментария в каждой строке; пустые строки пропускаются
+    // cimp 1 comments.txt
+    @ShellMethod(value = "Bulk insert comments for book from file", key = "cimp")
+    public String importComments(long bookId, String path) {
+        long inserted = 0;
+        List<String> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        try (var lines = Files.lines(Path.of(path))) {
+            var iterator = lines.map(String::strip)
+                    .filter(line -> !line.isEmpty())
+                    .iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == IMPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    inserted += commentService.insertAll(bookId, chunk).size();
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return "Inserted %d comments".formatted(inserted);
+    }
+
     @ShellMethod(value = "Update comment", key = "cupd")
     public String updateComment(long id, String text) {
         var savedComment = commentService.update(id, text);
@@ -1,6 +1,7 @@
 package ru.otus.hw.converters;
 
 import org.springframework.stereotype.Component;
+import ru.otus.hw.dto.AuthorDto;
 import ru.otus.hw.models.Author;
 
 @Component
@@ -8,4 +9,8 @@ public class AuthorConverter {
     public String authorToString(Author author) {
         return "Id: %d, FullName: %s".formatted(author.getId(), author.getFullName());
     }
+
+    public String authorToString(AuthorDto author) {
+        return "Id: %d, FullName: %s".formatted(author.id(), author.fullName());
+    }
 }
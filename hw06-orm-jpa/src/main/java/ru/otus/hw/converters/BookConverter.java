@@ -2,6 +2,8 @@ package ru.otus.hw.converters;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.otus.hw.dto.BookCommentsCountDto;
+import ru.otus.hw.dto.BookDto;
 import ru.otus.hw.models.Book;
 
 import java.util.stream.Collectors;
@@ -24,4 +26,20 @@ public class BookConverter {
                 authorConverter.authorToString(book.getAuthor()),
                 genresString);
     }
+
+    public String bookCommentsCountToString(BookCommentsCountDto book) {
+        return "Id: %d, title: %s, comments: %d".formatted(book.bookId(), book.title(), book.commentsCount());
+    }
+
+    public String bookToString(BookDto book) {
+        var genresString = book.genres().stream()
+                .map(genreConverter::genreToString)
+                .map("{%s}"::formatted)
+                .collect(Collectors.joining(", "));
+        return "Id: %d, title: %s, author: {%s}, genres: [%s]".formatted(
+                book.id(),
+                book.title(),
+                authorConverter.authorToString(book.author()),
+                genresString);
+    }
 }
@@ -1,6 +1,7 @@
 package ru.otus.hw.converters;
 
 import org.springframework.stereotype.Component;
+import ru.otus.hw.dto.GenreDto;
 import ru.otus.hw.models.Genre;
 
 @Component
@@ -8,4 +9,8 @@ public class GenreConverter {
     public String genreToString(Genre genre) {
         return "Id: %d, Name: %s".formatted(genre.getId(), genre.getName());
     }
+
+    public String genreToString(GenreDto genre) {
+        return "Id: %d, Name: %s".formatted(genre.id(), genre.name());
+    }
 }
@@ -0,0 +1,4 @@
+package ru.otus.hw.dto;
+
+public record AuthorDto(long id, String fullName) {
+}
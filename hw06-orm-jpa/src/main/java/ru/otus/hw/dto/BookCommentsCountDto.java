@@ -0,0 +1,4 @@
+package ru.otus.hw.dto;
+
+public record BookCommentsCountDto(long bookId, String title, long commentsCount) {
+}
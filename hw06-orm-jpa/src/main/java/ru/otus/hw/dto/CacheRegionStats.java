@@ -0,0 +1,9 @@
+package ru.otus.hw.dto;
+
+public record CacheRegionStats(String name, long hits, long misses, long puts) {
+
+    public double hitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -1,5 +1,7 @@
 package ru.otus.hw.repositories;
 
+import ru.otus.hw.dto.BookCommentsCountDto;
+import ru.otus.hw.dto.BookDto;
 import ru.otus.hw.models.Book;
 
 import java.util.List;
@@ -10,6 +12,14 @@ public interface BookRepository {
 
     List<Book> findAll();
 
+    List<BookDto> findAllDtos();
+
+    List<BookCommentsCountDto> findAllWithCommentCounts();
+
+    List<BookCommentsCountDto> findAllWithStoredCommentCounts();
+
+    void addCommentsCount(long bookId, long delta);
+
     Book save(Book book);
 
     void deleteById(long id);
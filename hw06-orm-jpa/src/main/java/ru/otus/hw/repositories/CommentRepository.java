@@ -4,13 +4,22 @@ import ru.otus.hw.models.Comment;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CommentRepository {
     Optional<Comment> findById(long id);
     
     List<Comment> findAllByBookId(long bookId);
+
+    List<Comment> findPageByBookId(long bookId, long afterId, int limit);
+
+    List<Comment> findLatestByBookId(long bookId, int limit);
+
+    Stream<Comment> streamAllByBookId(long bookId);
     
     Comment save(Comment comment);
+
+    List<Comment> saveAll(List<Comment> comments);
     
     void deleteById(long id);
 }
\ No newline at end of file
@@ -3,10 +3,21 @@ package ru.otus.hw.repositories;
 import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
 import org.springframework.stereotype.Repository;
+import ru.otus.hw.dto.AuthorDto;
+import ru.otus.hw.dto.BookCommentsCountDto;
+import ru.otus.hw.dto.BookDto;
+import ru.otus.hw.dto.GenreDto;
 import ru.otus.hw.models.Book;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -37,6 +48,61 @@ public class JpaBookRepository implements BookRepository {
                 .getResultList();
     }
 
+    // Только для чтения: два запроса скалярных столбцов (книги с авторами и пары книга-жанр) без управляемых
+    // сущностей, снимков состояния для dirty checking и ленивых прокси
+    @Override
+    public List<BookDto> findAllDtos() {
+        Map<Long, List<GenreDto>> genresByBookId = new HashMap<>();
+        em.createQuery("select b.id, g.id, g.name from Book b join b.genres g order by g.id", Tuple.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList()
+                .forEach(row -> genresByBookId.computeIfAbsent(row.get(0, Long.class), id -> new ArrayList<>())
+                        .add(new GenreDto(row.get(1, Long.class), row.get(2, String.class))));
+
+        return em.createQuery("select b.id, b.title, a.id, a.fullName from Book b join b.author a order by b.id",
+                        Tuple.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList().stream()
+                .map(row -> new BookDto(row.get(0, Long.class), row.get(1, String.class),
+                        new AuthorDto(row.get(2, Long.class), row.get(3, String.class)),
+                        genresByBookId.getOrDefault(row.get(0, Long.class), List.of())))
+                .toList();
+    }
+
+    // Один запрос с GROUP BY: коллекции комментариев не инициализируются
+    @Override
+    public List<BookCommentsCountDto> findAllWithCommentCounts() {
+        return em.createQuery(
+                "select new ru.otus.hw.dto.BookCommentsCountDto(b.id, b.title, count(c.id)) " +
+                "from Book b left join b.comments c " +
+                "group by b.id, b.title " +
+                "order by b.id", BookCommentsCountDto.class)
+                .getResultList();
+    }
+
+    // Столбец comments_count не отображен на сущность, поэтому читается и меняется нативными запросами.
+    // Синхронизация только с Book: Hibernate не сбрасывает остальные изменения и не очищает регионы кэша
+    @Override
+    public List<BookCommentsCountDto> findAllWithStoredCommentCounts() {
+        return em.unwrap(Session.class)
+                .createNativeQuery("select id, title, comments_count from books order by id", Tuple.class)
+                .addSynchronizedEntityClass(Book.class)
+                .getResultList().stream()
+                .map(row -> new BookCommentsCountDto(row.get(0, Long.class), row.get(1, String.class),
+                        row.get(2, Long.class)))
+                .toList();
+    }
+
+    @Override
+    public void addCommentsCount(long bookId, long delta) {
+        em.createNativeQuery("update books set comments_count = comments_count + :delta where id = :bookId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Book.class)
+                .setParameter("delta", delta)
+                .setParameter("bookId", bookId)
+                .executeUpdate();
+    }
+
     @Override
     public Book save(Book book) {
         if (book.getId() == 0) {
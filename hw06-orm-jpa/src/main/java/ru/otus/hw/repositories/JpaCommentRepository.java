@@ -2,18 +2,27 @@ package ru.otus.hw.repositories;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import ru.otus.hw.models.Comment;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public class JpaCommentRepository implements CommentRepository {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
     @PersistenceContext
     private EntityManager em;
 
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
     @Override
     public Optional<Comment> findById(long id) {
         return em.createQuery(
@@ -33,6 +42,48 @@ public class JpaCommentRepository implements CommentRepository {
                 .getResultList();
     }
 
+    // Пагинация по ключу: страница начинается после id последнего комментария предыдущей страницы
+    // и читается по индексу (book_id, id) за O(limit) независимо от глубины.
+    // Сортировка указана по обоим столбцам индекса: иначе H2 не использует его порядок и сортирует все строки книги
+    @Override
+    public List<Comment> findPageByBookId(long bookId, long afterId, int limit) {
+        return em.createQuery(
+                "select c from Comment c " +
+                "where c.book.id = :bookId and c.id > :afterId " +
+                "order by c.book.id, c.id", Comment.class)
+                .setParameter("bookId", bookId)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Последние комментарии читаются по индексу (book_id desc, id desc) без сортировки всех комментариев книги
+    @Override
+    public List<Comment> findLatestByBookId(long bookId, int limit) {
+        return em.createQuery(
+                "select c from Comment c " +
+                "where c.book.id = :bookId " +
+                "order by c.book.id desc, c.id desc", Comment.class)
+                .setParameter("bookId", bookId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Строки читаются курсором порциями по STREAM_FETCH_SIZE, а каждый комментарий отсоединяется
+    // перед передачей дальше, поэтому контекст персистентности не растет. Поток закрывается внутри транзакции
+    @Override
+    public Stream<Comment> streamAllByBookId(long bookId) {
+        return em.createQuery(
+                "select c from Comment c " +
+                "where c.book.id = :bookId " +
+                "order by c.id", Comment.class)
+                .setParameter("bookId", bookId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(this::detached);
+    }
+
     @Override
     public Comment save(Comment comment) {
         if (comment.getId() == 0) {
@@ -42,6 +93,23 @@ public class JpaCommentRepository implements CommentRepository {
         return em.merge(comment);
     }
 
+    // Каждые batchSize комментариев вставки уходят одним пакетом JDBC, а сохраненные комментарии отсоединяются,
+    // поэтому память не растет с числом комментариев. Остальные сущности контекста, включая книги
+    // комментариев, остаются управляемыми
+    @Override
+    public List<Comment> saveAll(List<Comment> comments) {
+        List<Comment> saved = new ArrayList<>(comments.size());
+        int flushedCount = 0;
+        for (Comment comment : comments) {
+            saved.add(save(comment));
+            if (saved.size() - flushedCount == batchSize) {
+                flushedCount = flushAndDetach(saved, flushedCount);
+            }
+        }
+        flushAndDetach(saved, flushedCount);
+        return saved;
+    }
+
     @Override
     public void deleteById(long id) {
         Comment comment = em.find(Comment.class, id);
@@ -49,4 +117,15 @@ public class JpaCommentRepository implements CommentRepository {
             em.remove(comment);
         }
     }
+
+    private int flushAndDetach(List<Comment> saved, int fromIndex) {
+        em.flush();
+        saved.subList(fromIndex, saved.size()).forEach(em::detach);
+        return saved.size();
+    }
+
+    private Comment detached(Comment comment) {
+        em.detach(comment);
+        return comment;
+    }
 }
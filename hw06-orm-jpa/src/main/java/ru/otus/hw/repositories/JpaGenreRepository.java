@@ -2,6 +2,7 @@ package ru.otus.hw.repositories;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import ru.otus.hw.models.Genre;
 
@@ -16,13 +17,16 @@ public class JpaGenreRepository implements GenreRepository {
 
     @Override
     public List<Genre> findAll() {
-        return em.createQuery("select g from Genre g", Genre.class).getResultList();
+        return em.createQuery("select g from Genre g", Genre.class)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList();
     }
 
     @Override
     public List<Genre> findAllByIds(Set<Long> ids) {
         return em.createQuery("select g from Genre g where g.id in :ids", Genre.class)
                 .setParameter("ids", ids)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
                 .getResultList();
     }
 }
\ No newline at end of file
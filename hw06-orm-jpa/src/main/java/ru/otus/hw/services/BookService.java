@@ -1,5 +1,7 @@
 package ru.otus.hw.services;
 
+import ru.otus.hw.dto.BookCommentsCountDto;
+import ru.otus.hw.dto.BookDto;
 import ru.otus.hw.models.Book;
 
 import java.util.List;
@@ -11,6 +13,12 @@ public interface BookService {
 
     List<Book> findAll();
 
+    List<BookDto> findAllDtos();
+
+    List<BookCommentsCountDto> findAllWithCommentCounts();
+
+    List<BookCommentsCountDto> findAllWithStoredCommentCounts();
+
     Book insert(String title, long authorId, Set<Long> genresIds);
 
     Book update(long id, String title, long authorId, Set<Long> genresIds);
@@ -3,6 +3,8 @@ package ru.otus.hw.services;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.otus.hw.dto.BookCommentsCountDto;
+import ru.otus.hw.dto.BookDto;
 import ru.otus.hw.exceptions.EntityNotFoundException;
 import ru.otus.hw.models.Book;
 import ru.otus.hw.repositories.AuthorRepository;
@@ -47,6 +49,24 @@ public class BookServiceImpl implements BookService {
         return books;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookDto> findAllDtos() {
+        return bookRepository.findAllDtos();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookCommentsCountDto> findAllWithCommentCounts() {
+        return bookRepository.findAllWithCommentCounts();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookCommentsCountDto> findAllWithStoredCommentCounts() {
+        return bookRepository.findAllWithStoredCommentCounts();
+    }
+
     @Override
     @Transactional
     public Book insert(String title, long authorId, Set<Long> genresIds) {
@@ -0,0 +1,13 @@
+package ru.otus.hw.services;
+
+import ru.otus.hw.dto.CacheRegionStats;
+
+import java.util.List;
+
+public interface CacheService {
+    List<CacheRegionStats> findAllStats();
+
+    long preparedStatementsCount();
+
+    void invalidateAll();
+}
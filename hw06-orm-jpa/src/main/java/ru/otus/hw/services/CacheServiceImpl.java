@@ -0,0 +1,54 @@
+package ru.otus.hw.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import ru.otus.hw.dto.CacheRegionStats;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+// Статистика второго уровня кэша Hibernate по регионам, включая регион кэша запросов
+@RequiredArgsConstructor
+@Service
+public class CacheServiceImpl implements CacheService {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public List<CacheRegionStats> findAllStats() {
+        Statistics statistics = statistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(name -> toStats(name, statistics.getCacheRegionStatistics(name)))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public long preparedStatementsCount() {
+        return statistics().getPrepareStatementCount();
+    }
+
+    // JPA Cache.evictAll() не затрагивает регионы коллекций: без их очистки Book.genres хранил бы id
+    // вытесненных жанров, и каждый жанр загружался бы отдельным запросом
+    @Override
+    public void invalidateAll() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static CacheRegionStats toStats(String name, CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return null;
+        }
+        return new CacheRegionStats(name, regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                regionStatistics.getPutCount());
+    }
+}
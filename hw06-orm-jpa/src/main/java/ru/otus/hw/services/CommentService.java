@@ -4,13 +4,22 @@ import ru.otus.hw.models.Comment;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CommentService {
     Optional<Comment> findById(long id);
     
     List<Comment> findAllByBookId(long bookId);
+
+    List<Comment> findPageByBookId(long bookId, long afterId, int limit);
+
+    List<Comment> findLatestByBookId(long bookId, int limit);
+
+    long forEachByBookId(long bookId, Consumer<Comment> action);
     
     Comment insert(String text, long bookId);
+
+    List<Comment> insertAll(long bookId, List<String> texts);
     
     Comment update(long id, String text);
     
@@ -11,6 +11,7 @@ import ru.otus.hw.repositories.CommentRepository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @RequiredArgsConstructor
 @Service
@@ -32,13 +33,59 @@ public class CommentServiceImpl implements CommentService {
         return commentRepository.findAllByBookId(bookId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Comment> findPageByBookId(long bookId, long afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        return commentRepository.findPageByBookId(bookId, afterId, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Comment> findLatestByBookId(long bookId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Comments limit must be positive");
+        }
+        return commentRepository.findLatestByBookId(bookId, limit);
+    }
+
+    // Поток открыт только внутри транзакции, поэтому комментарии передаются обработчику, а не возвращаются
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachByBookId(long bookId, Consumer<Comment> action) {
+        long processed = 0;
+        try (var comments = commentRepository.streamAllByBookId(bookId)) {
+            for (var iterator = comments.iterator(); iterator.hasNext(); processed++) {
+                action.accept(iterator.next());
+            }
+        }
+        return processed;
+    }
+
     @Override
     @Transactional
     public Comment insert(String text, long bookId) {
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new EntityNotFoundException("Book with id %d not found".formatted(bookId)));
         Comment comment = new Comment(0, text, book);
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        bookRepository.addCommentsCount(bookId, 1);
+        return savedComment;
+    }
+
+    @Override
+    @Transactional
+    public List<Comment> insertAll(long bookId, List<String> texts) {
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new EntityNotFoundException("Book with id %d not found".formatted(bookId)));
+        List<Comment> comments = texts.stream()
+                .map(text -> new Comment(0, text, book))
+                .toList();
+        List<Comment> savedComments = commentRepository.saveAll(comments);
+        bookRepository.addCommentsCount(bookId, savedComments.size());
+        return savedComments;
     }
 
     @Override
@@ -53,6 +100,10 @@ public class CommentServiceImpl implements CommentService {
     @Override
     @Transactional
     public void deleteById(long id) {
-        commentRepository.deleteById(id);
+        commentRepository.findById(id).ifPresent(comment -> {
+            long bookId = comment.getBook().getId();
+            commentRepository.deleteById(id);
+            bookRepository.addCommentsCount(bookId, -1);
+        });
     }
 }
\ No newline at end of file
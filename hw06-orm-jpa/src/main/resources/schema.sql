@@ -1,19 +1,29 @@
+-- Идентификаторы выдаются последовательностями с шагом 50: Hibernate резервирует блок id одним запросом
+-- (оптимизатор pooled) и может пакетно вставлять строки, чего не позволяет IDENTITY.
+-- Начальные данные вставляются с явными id ниже начала последовательностей
+create sequence authors_seq start with 100 increment by 50;
+create sequence genres_seq start with 100 increment by 50;
+create sequence books_seq start with 100 increment by 50;
+create sequence comments_seq start with 100 increment by 50;
+
 create table authors (
-    id bigserial,
+    id bigint default next value for authors_seq,
     full_name varchar(255),
     primary key (id)
 );
 
 create table genres (
-    id bigserial,
+    id bigint default next value for genres_seq,
     name varchar(255),
     primary key (id)
 );
 
+-- comments_count - число комментариев книги, поддерживаемое CommentService для чтения без агрегации
 create table books (
-    id bigserial,
+    id bigint default next value for books_seq,
     title varchar(255),
     author_id bigint references authors (id) on delete cascade,
+    comments_count bigint default 0 not null,
     primary key (id)
 );
 
@@ -24,8 +34,13 @@ create table books_genres (
 );
 
 create table comments (
-    id bigserial,
+    id bigint default next value for comments_seq,
     text varchar(1000),
     book_id bigint references books(id) on delete cascade,
     primary key (id)
 );
+
+-- Страницы и последние комментарии книги читаются по индексу без сортировки.
+-- H2 не читает индекс в обратном порядке, поэтому для последних комментариев нужен отдельный индекс по убыванию
+create index comments_book_id_id_idx on comments (book_id, id);
+create index comments_book_id_id_desc_idx on comments (book_id desc, id desc);
@@ -0,0 +1,86 @@
+package ru.otus.hw.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Выполняет EXPLAIN в H2 для запросов страниц, последних комментариев и потока комментариев книги.
+// Страницы и последние комментарии должны читаться по составному индексу в нужном порядке без сортировки
+@DisplayName("Планы запросов комментариев книги ")
+@DataJpaTest
+@Import({JpaCommentRepository.class, SqlStatementsCounter.class})
+class CommentQueryPlansTest {
+
+    private static final String INDEX_SORTED_MARKER = "/* index sorted */";
+
+    private static final String TABLE_SCAN_MARKER = ".tableScan";
+
+    @Autowired
+    private JpaCommentRepository commentRepository;
+
+    @Autowired
+    private SqlStatementsCounter sqlStatementsCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DisplayName("страница комментариев должна читаться по индексу (book_id, id)")
+    @Test
+    void findPageByBookIdShouldUseIndexOrder() {
+        assertIndexSorted("COMMENTS_BOOK_ID_ID_IDX", () -> commentRepository.findPageByBookId(1L, 0, 10));
+    }
+
+    @DisplayName("последние комментарии должны читаться по индексу (book_id desc, id desc)")
+    @Test
+    void findLatestByBookIdShouldUseIndexOrder() {
+        assertIndexSorted("COMMENTS_BOOK_ID_ID_DESC_IDX", () -> commentRepository.findLatestByBookId(1L, 10));
+    }
+
+    // Без LIMIT H2 выбирает индекс внешнего ключа по book_id и сортирует комментарии книги
+    @DisplayName("поток комментариев должен читаться по индексу без просмотра таблицы")
+    @Test
+    void streamAllByBookIdShouldUseIndex() {
+        String plan = explainSelectOf(() -> {
+            try (var comments = commentRepository.streamAllByBookId(1L)) {
+                comments.forEach(comment -> { });
+            }
+        });
+        assertThat(plan).contains("BOOK_ID = ").doesNotContain(TABLE_SCAN_MARKER);
+    }
+
+    private void assertIndexSorted(String indexName, Runnable operation) {
+        assertThat(explainSelectOf(operation)).contains(indexName).contains(INDEX_SORTED_MARKER);
+    }
+
+    private String explainSelectOf(Runnable operation) {
+        List<String> selects = sqlStatementsCounter.statementsDuring("SELECT", operation);
+        assertThat(selects).hasSize(1);
+        return explain(selects.get(0));
+    }
+
+    // Все параметры подставляются как 1: для планировщика H2 важна форма запроса, а не значения
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+            int parametersCount = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parametersCount; i++) {
+                statement.setLong(i, 1L);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append(System.lineSeparator());
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
@@ -9,11 +9,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import ru.otus.hw.dto.AuthorDto;
+import ru.otus.hw.dto.BookCommentsCountDto;
+import ru.otus.hw.dto.BookDto;
+import ru.otus.hw.dto.GenreDto;
 import ru.otus.hw.models.Author;
 import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Comment;
 import ru.otus.hw.models.Genre;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -67,6 +73,46 @@ class JpaBookRepositoryTest {
                 .allMatch(book -> !book.getGenres().isEmpty());
     }
 
+    @DisplayName("должен загружать список всех книг в виде DTO, совпадающих с сущностями")
+    @Test
+    void shouldReturnBooksDtosMatchingEntities() {
+        var expectedDtos = repository.findAll().stream()
+                .sorted(Comparator.comparingLong(Book::getId))
+                .map(book -> new BookDto(book.getId(), book.getTitle(),
+                        new AuthorDto(book.getAuthor().getId(), book.getAuthor().getFullName()),
+                        book.getGenres().stream()
+                                .sorted(Comparator.comparingLong(Genre::getId))
+                                .map(genre -> new GenreDto(genre.getId(), genre.getName()))
+                                .toList()))
+                .toList();
+        em.clear();
+
+        var actualDtos = repository.findAllDtos();
+
+        assertThat(actualDtos).isNotEmpty().containsExactlyElementsOf(expectedDtos);
+    }
+
+    @DisplayName("должен подсчитывать комментарии книг запросом GROUP BY")
+    @Test
+    void shouldCountCommentsPerBook() {
+        var actualCounts = repository.findAllWithCommentCounts();
+
+        assertThat(actualCounts).filteredOn(count -> count.bookId() <= 3).containsExactly(
+                new BookCommentsCountDto(1L, "BookTitle_1", 2),
+                new BookCommentsCountDto(2L, "BookTitle_2", 1),
+                new BookCommentsCountDto(3L, "BookTitle_3", 1));
+    }
+
+    @DisplayName("должен читать счетчики комментариев, совпадающие с подсчетом GROUP BY")
+    @Test
+    void shouldReturnStoredCommentCountsMatchingAggregation() {
+        repository.addCommentsCount(1L, 1);
+        em.persist(new Comment(0, "New Comment", em.find(Book.class, 1L)));
+
+        assertThat(repository.findAllWithStoredCommentCounts())
+                .containsExactlyElementsOf(repository.findAllWithCommentCounts());
+    }
+
     @DisplayName("должен сохранять новую книгу")
     @Test
     void shouldSaveNewBook() {
@@ -10,6 +10,9 @@ import org.springframework.context.annotation.Import;
 import ru.otus.hw.models.Book;
 import ru.otus.hw.models.Comment;
 
+import java.util.List;
+import java.util.stream.IntStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("Репозиторий на основе JPA для работы с комментариями ")
@@ -51,6 +54,41 @@ class JpaCommentRepositoryTest {
                 .allMatch(c -> c.getBook() != null);
     }
 
+    @DisplayName("должен загружать страницы комментариев книги после заданного id")
+    @Test
+    void shouldReturnCommentsPagesByBookId() {
+        var firstPage = repository.findPageByBookId(book.getId(), 0, 1);
+        var secondPage = repository.findPageByBookId(book.getId(), firstPage.get(0).getId(), 1);
+        var lastPage = repository.findPageByBookId(book.getId(), secondPage.get(0).getId(), 1);
+
+        assertThat(firstPage).extracting(Comment::getId).containsExactly(1L);
+        assertThat(secondPage).extracting(Comment::getId).containsExactly(2L);
+        assertThat(lastPage).isEmpty();
+    }
+
+    @DisplayName("должен загружать последние комментарии книги начиная с новых")
+    @Test
+    void shouldReturnLatestCommentsByBookId() {
+        repository.save(new Comment(0, "Latest Comment", book));
+
+        var actualComments = repository.findLatestByBookId(book.getId(), 2);
+
+        assertThat(actualComments).extracting(Comment::getText)
+                .containsExactly("Latest Comment", "Comment_2 for BookTitle_1");
+    }
+
+    @DisplayName("должен отдавать поток отсоединенных комментариев книги по порядку id")
+    @Test
+    void shouldStreamDetachedCommentsByBookId() {
+        List<Comment> actualComments;
+        try (var comments = repository.streamAllByBookId(book.getId())) {
+            actualComments = comments.toList();
+        }
+
+        assertThat(actualComments).extracting(Comment::getId).containsExactly(1L, 2L);
+        assertThat(actualComments).noneMatch(c -> em.getEntityManager().contains(c));
+    }
+
     @DisplayName("должен сохранять новый комментарий")
     @Test
     void shouldSaveNewComment() {
@@ -101,6 +139,23 @@ class JpaCommentRepositoryTest {
                 .isEqualTo(returnedComment);
     }
 
+    @DisplayName("должен сохранять пакет комментариев и отсоединять только их")
+    @Test
+    void shouldSaveAllCommentsAndDetachOnlyThem() {
+        Book managedBook = em.find(Book.class, book.getId());
+        List<Comment> comments = IntStream.rangeClosed(1, 120)
+                .mapToObj(i -> new Comment(0, "Bulk comment " + i, managedBook))
+                .toList();
+
+        var returnedComments = repository.saveAll(comments);
+
+        assertThat(returnedComments).hasSize(120)
+                .allMatch(c -> c.getId() > 0)
+                .noneMatch(c -> em.getEntityManager().contains(c));
+        assertThat(em.getEntityManager().contains(managedBook)).isTrue();
+        assertThat(repository.findAllByBookId(book.getId())).hasSize(122);
+    }
+
     @DisplayName("должен удалять комментарий по id ")
     @Test
     void shouldDeleteComment() {
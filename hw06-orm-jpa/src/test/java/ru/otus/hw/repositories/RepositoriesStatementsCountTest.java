@@ -0,0 +1,184 @@
+package ru.otus.hw.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.otus.hw.converters.AuthorConverter;
+import ru.otus.hw.converters.BookConverter;
+import ru.otus.hw.converters.CommentConverter;
+import ru.otus.hw.converters.GenreConverter;
+import ru.otus.hw.models.Author;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Comment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Точное число SELECT для каждого метода репозиториев при пустых контексте персистентности и кэше второго уровня.
+// Обращение к ленивым связям, которые нужны конвертерам, входит в замер
+@DisplayName("Число запросов репозиториев на основе JPA ")
+@DataJpaTest
+@Import({JpaBookRepository.class, JpaCommentRepository.class, JpaAuthorRepository.class, JpaGenreRepository.class,
+        SqlStatementsCounter.class, BookConverter.class, AuthorConverter.class, GenreConverter.class,
+        CommentConverter.class})
+class RepositoriesStatementsCountTest {
+
+    private static final String SEQUENCE_SELECT_PREFIX = "SELECT NEXT VALUE FOR";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private BookConverter bookConverter;
+
+    @Autowired
+    private CommentConverter commentConverter;
+
+    @Autowired
+    private SqlStatementsCounter sqlStatementsCounter;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DisplayName("BookRepository.findById")
+    @Test
+    void bookFindById() {
+        assertSelects(1, () -> bookConverter.bookToString(bookRepository.findById(1L).orElseThrow()));
+    }
+
+    // Книги с авторами одним запросом и жанры всех книг одной пачкой (@BatchSize)
+    @DisplayName("BookRepository.findAll")
+    @Test
+    void bookFindAll() {
+        assertSelects(2, () -> bookRepository.findAll().forEach(bookConverter::bookToString));
+    }
+
+    // Книги с авторами и пары книга-жанр
+    @DisplayName("BookRepository.findAllDtos")
+    @Test
+    void bookFindAllDtos() {
+        assertSelects(2, () -> bookRepository.findAllDtos().forEach(bookConverter::bookToString));
+    }
+
+    @DisplayName("BookRepository.findAllWithCommentCounts и findAllWithStoredCommentCounts")
+    @Test
+    void bookCommentCounts() {
+        assertSelects(1, () -> bookRepository.findAllWithCommentCounts());
+        assertSelects(1, () -> bookRepository.findAllWithStoredCommentCounts());
+    }
+
+    @DisplayName("BookRepository.save новой книги")
+    @Test
+    void bookSaveNew() {
+        assertSelects(0, () -> bookRepository.save(new Book(0, "BookTitle_10500", em.getEntityManager()
+                .getReference(Author.class, 1L), new ArrayList<>(), new ArrayList<>())));
+    }
+
+    // Загрузка книги и ее комментариев для каскадного удаления
+    @DisplayName("BookRepository.deleteById")
+    @Test
+    void bookDeleteById() {
+        assertSelects(2, () -> bookRepository.deleteById(1L));
+    }
+
+    @DisplayName("CommentRepository.findById")
+    @Test
+    void commentFindById() {
+        assertSelects(1, () -> commentConverter.commentToString(commentRepository.findById(1L).orElseThrow()));
+    }
+
+    @DisplayName("CommentRepository.findAllByBookId")
+    @Test
+    void commentFindAllByBookId() {
+        assertSelects(1, () -> commentRepository.findAllByBookId(1L).forEach(commentConverter::commentToString));
+    }
+
+    @DisplayName("CommentRepository.save нового комментария")
+    @Test
+    void commentSaveNew() {
+        assertSelects(0, () -> commentRepository.save(
+                new Comment(0, "Comment", em.getEntityManager().getReference(Book.class, 1L))));
+    }
+
+    @DisplayName("CommentRepository.findPageByBookId, findLatestByBookId и streamAllByBookId")
+    @Test
+    void commentPagingAndStreaming() {
+        assertSelects(1, () -> commentRepository.findPageByBookId(1L, 0, 10)
+                .forEach(commentConverter::commentToString));
+        assertSelects(1, () -> commentRepository.findLatestByBookId(1L, 10)
+                .forEach(commentConverter::commentToString));
+        assertSelects(1, () -> {
+            try (var comments = commentRepository.streamAllByBookId(1L)) {
+                comments.forEach(commentConverter::commentToString);
+            }
+        });
+    }
+
+    // 120 комментариев: пакеты по 50 после 50-го и 100-го и остаток при завершении
+    @DisplayName("CommentRepository.saveAll пакетами")
+    @Test
+    void commentSaveAll() {
+        Book book = em.getEntityManager().getReference(Book.class, 1L);
+        List<Comment> comments = IntStream.rangeClosed(1, 120)
+                .mapToObj(i -> new Comment(0, "Comment_" + i, book))
+                .toList();
+        List<String> inserts = sqlStatementsCounter.statementsDuring("INSERT",
+                () -> commentRepository.saveAll(comments));
+        assertThat(inserts).as("INSERT statements").hasSize(3);
+    }
+
+    @DisplayName("CommentRepository.deleteById")
+    @Test
+    void commentDeleteById() {
+        assertSelects(1, () -> commentRepository.deleteById(1L));
+    }
+
+    @DisplayName("AuthorRepository.findAll и findById")
+    @Test
+    void authorFinders() {
+        assertSelects(1, () -> authorRepository.findAll());
+        assertSelects(1, () -> authorRepository.findById(1L));
+    }
+
+    @DisplayName("GenreRepository.findAll и findAllByIds")
+    @Test
+    void genreFinders() {
+        assertSelects(1, () -> genreRepository.findAll());
+        assertSelects(1, () -> genreRepository.findAllByIds(Set.of(1L, 2L, 3L)));
+    }
+
+    private void assertSelects(int expected, Runnable action) {
+        em.flush();
+        em.clear();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        List<String> selects = sqlStatementsCounter.statementsDuring("SELECT", () -> {
+            action.run();
+            em.flush();
+        });
+        // Обращения к последовательностям зависят от того, сколько id осталось в уже выделенном блоке
+        assertThat(selects).as("SELECT statements")
+                .filteredOn(sql -> !sql.startsWith(SEQUENCE_SELECT_PREFIX))
+                .hasSize(expected);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.otus.hw.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.otus.hw.Application;
+import ru.otus.hw.converters.BookConverter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Вывод списка всех книг строками, как в команде ab: управляемые сущности Book (findAll) против
+// DTO из двух скалярных запросов (findAllDtos). Для сравнения памяти запускать с -prof gc (gc.alloc.rate.norm)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookListingBenchmark {
+
+    private static final int AUTHORS_COUNT = 50;
+
+    private static final int GENRES_COUNT = 20;
+
+    @Param({"1000", "10000"})
+    private int booksCount;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService bookService;
+
+    private BookConverter bookConverter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Аргументы командной строки, а не properties(): те лишь значения по умолчанию и проигрывают application.yml
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:book_listing_bench",
+                        "--spring.shell.interactive.enabled=false",
+                        "--spring.shell.noninteractive.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false");
+        bookService = context.getBean(BookService.class);
+        bookConverter = context.getBean(BookConverter.class);
+
+        // Явные id ниже начала последовательностей; книги из data.sql (id 1-3) остаются
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.execute("insert into authors(id, full_name) select x, 'Author_' || x from system_range(4, "
+                + AUTHORS_COUNT + ")");
+        jdbc.execute("insert into genres(id, name) select x, 'Genre_' || x from system_range(7, "
+                + GENRES_COUNT + ")");
+        jdbc.execute("insert into books(id, title, author_id) select x, 'BookTitle_' || x, mod(x, "
+                + AUTHORS_COUNT + ") + 1 from system_range(4, " + (booksCount + 3) + ")");
+        jdbc.execute("insert into books_genres(book_id, genre_id) select id, mod(id, " + GENRES_COUNT
+                + ") + 1 from books where id > 3");
+        jdbc.execute("insert into books_genres(book_id, genre_id) select id, mod(id + 7, " + GENRES_COUNT
+                + ") + 1 from books where id > 3");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<String> entityPath() {
+        return bookService.findAll().stream()
+                .map(bookConverter::bookToString)
+                .toList();
+    }
+
+    @Benchmark
+    public List<String> dtoProjectionPath() {
+        return bookService.findAllDtos().stream()
+                .map(bookConverter::bookToString)
+                .toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookListingBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
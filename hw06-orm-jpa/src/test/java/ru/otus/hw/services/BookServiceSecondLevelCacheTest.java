@@ -0,0 +1,111 @@
+package ru.otus.hw.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.otus.hw.dto.CacheRegionStats;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
+import ru.otus.hw.repositories.JpaAuthorRepository;
+import ru.otus.hw.repositories.JpaBookRepository;
+import ru.otus.hw.repositories.JpaCommentRepository;
+import ru.otus.hw.repositories.JpaGenreRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Второй уровень кэша Hibernate для авторов и жанров ")
+@DataJpaTest
+@Import({BookServiceImpl.class, AuthorServiceImpl.class, GenreServiceImpl.class, CacheServiceImpl.class,
+         JpaBookRepository.class, JpaCommentRepository.class,
+         JpaAuthorRepository.class, JpaGenreRepository.class})
+@Transactional(propagation = Propagation.NEVER)
+class BookServiceSecondLevelCacheTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cacheService.invalidateAll();
+        statistics.clear();
+    }
+
+    // Другие тесты контекста могут добавлять книги, поэтому ожидания считаются от их текущего числа
+    @DisplayName("холодный findAll должен читать книги с авторами и жанры пачками по 10 книг")
+    @Test
+    void coldFindAllShouldLoadGenresInBatches() {
+        List<Book> books = bookService.findAll();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + (books.size() + 9) / 10);
+    }
+
+    @DisplayName("прогретый findAll должен выполнять один запрос, получая жанры книг из кэша")
+    @Test
+    void warmFindAllShouldIssueSingleStatement() {
+        bookService.findAll();
+        statistics.clear();
+
+        List<Book> books = bookService.findAll();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCacheRegionStatistics("book-genres").getHitCount()).isEqualTo(books.size());
+        assertThat(statistics.getCacheRegionStatistics("genres").getHitCount())
+                .isEqualTo(books.stream().mapToLong(book -> book.getGenres().size()).sum());
+        assertThat(books).extracting(book -> book.getGenres().stream().map(Genre::getName).toList())
+                .startsWith(List.of("Genre_1", "Genre_2"), List.of("Genre_3", "Genre_4"));
+    }
+
+    @DisplayName("повторные списки авторов и жанров должны браться из кэша запросов")
+    @Test
+    void repeatedReferenceListsShouldHitQueryCache() {
+        authorService.findAll();
+        genreService.findAll();
+        statistics.clear();
+
+        assertThat(authorService.findAll()).hasSize(3);
+        assertThat(genreService.findAll()).hasSize(6);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+    }
+
+    @DisplayName("статистика должна содержать регионы авторов, жанров и жанров книг")
+    @Test
+    void statsShouldContainCacheRegions() {
+        bookService.findAll();
+        int booksCount = bookService.findAll().size();
+
+        assertThat(cacheService.findAllStats())
+                .anySatisfy(stats -> {
+                    assertThat(stats.name()).isEqualTo("book-genres");
+                    assertThat(stats.hits()).isEqualTo(booksCount);
+                })
+                .extracting(CacheRegionStats::name)
+                .contains("authors", "genres", "default-query-results-region");
+    }
+}
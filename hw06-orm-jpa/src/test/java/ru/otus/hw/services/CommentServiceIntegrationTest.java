@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.transaction.annotation.Transactional;
+import ru.otus.hw.dto.BookCommentsCountDto;
 import ru.otus.hw.models.Author;
 import ru.otus.hw.models.Book;
 import ru.otus.hw.models.Comment;
@@ -15,9 +16,11 @@ import ru.otus.hw.repositories.JpaBookRepository;
 import ru.otus.hw.repositories.JpaCommentRepository;
 import ru.otus.hw.repositories.JpaGenreRepository;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayName("Интеграционные тесты сервиса комментариев")
 @DataJpaTest
@@ -29,6 +32,9 @@ class CommentServiceIntegrationTest {
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private BookService bookService;
+
     @DisplayName("должен возвращать комментарий по id с доступными связями без LazyInitializationException")
     @Test
     void shouldReturnCommentByIdWithAccessibleRelationships() {
@@ -134,6 +140,52 @@ class CommentServiceIntegrationTest {
                 .isEqualTo(expectedFirstComment);
     }
 
+    @DisplayName("должен передавать обработчику все комментарии книги по порядку id")
+    @Test
+    void shouldPassAllBookCommentsToAction() {
+        List<Long> ids = new ArrayList<>();
+
+        long processed = commentService.forEachByBookId(1L, comment -> ids.add(comment.getId()));
+
+        assertThat(processed).isEqualTo(2);
+        assertThat(ids).containsExactly(1L, 2L);
+    }
+
+    @DisplayName("должен отклонять страницу комментариев с неположительным размером")
+    @Test
+    void shouldRejectNonPositivePageLimit() {
+        assertThatThrownBy(() -> commentService.findPageByBookId(1L, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("должен поддерживать счетчик комментариев книги при вставке и удалении")
+    @Test
+    @Transactional
+    void shouldKeepStoredCommentsCountInSync() {
+        commentService.insert("New Comment", 3L);
+        commentService.insertAll(3L, List.of("Bulk_1", "Bulk_2"));
+        commentService.deleteById(4L);
+
+        var storedCounts = bookService.findAllWithStoredCommentCounts();
+
+        assertThat(storedCounts).filteredOn(count -> count.bookId() == 3L)
+                .extracting(BookCommentsCountDto::commentsCount).containsExactly(3L);
+        assertThat(storedCounts).containsExactlyElementsOf(bookService.findAllWithCommentCounts());
+    }
+
+    @DisplayName("должен создавать пакет комментариев книги")
+    @Test
+    @Transactional
+    void shouldInsertAllComments() {
+        var actualComments = commentService.insertAll(2L, List.of("Bulk_1", "Bulk_2", "Bulk_3"));
+
+        assertThat(actualComments).hasSize(3)
+                .allMatch(c -> c.getId() > 0)
+                .allMatch(c -> c.getBook().getId() == 2L)
+                .extracting(Comment::getText).containsExactly("Bulk_1", "Bulk_2", "Bulk_3");
+        assertThat(commentService.findAllByBookId(2L)).hasSize(4);
+    }
+
     @DisplayName("должен создавать новый комментарий с доступными связями без LazyInitializationException")
     @Test
     @Transactional
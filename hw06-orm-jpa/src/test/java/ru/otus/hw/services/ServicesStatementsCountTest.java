@@ -0,0 +1,164 @@
+package ru.otus.hw.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.otus.hw.converters.AuthorConverter;
+import ru.otus.hw.converters.BookConverter;
+import ru.otus.hw.converters.CommentConverter;
+import ru.otus.hw.converters.GenreConverter;
+import ru.otus.hw.repositories.JpaAuthorRepository;
+import ru.otus.hw.repositories.JpaBookRepository;
+import ru.otus.hw.repositories.JpaCommentRepository;
+import ru.otus.hw.repositories.JpaGenreRepository;
+import ru.otus.hw.repositories.SqlStatementsCounter;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Точное число SELECT для каждого метода сервисов вместе с выводом результата конвертерами,
+// как это делают команды shell. Контекст персистентности и кэш второго уровня перед замером очищаются
+@DisplayName("Число запросов сервисов ")
+@DataJpaTest
+@Import({BookServiceImpl.class, CommentServiceImpl.class, AuthorServiceImpl.class, GenreServiceImpl.class,
+        JpaBookRepository.class, JpaCommentRepository.class, JpaAuthorRepository.class, JpaGenreRepository.class,
+        BookConverter.class, AuthorConverter.class, GenreConverter.class, CommentConverter.class,
+        SqlStatementsCounter.class})
+class ServicesStatementsCountTest {
+
+    private static final String SEQUENCE_SELECT_PREFIX = "SELECT NEXT VALUE FOR";
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private BookConverter bookConverter;
+
+    @Autowired
+    private CommentConverter commentConverter;
+
+    @Autowired
+    private SqlStatementsCounter sqlStatementsCounter;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Книга с автором и жанрами по графу сущности и комментарии, которые сервис инициализирует
+    @DisplayName("BookService.findById")
+    @Test
+    void bookFindById() {
+        assertSelects(2, () -> bookService.findById(1L).map(bookConverter::bookToString));
+    }
+
+    @DisplayName("BookService.findAll")
+    @Test
+    void bookFindAll() {
+        assertSelects(2, () -> bookService.findAll().forEach(bookConverter::bookToString));
+    }
+
+    @DisplayName("BookService.findAllDtos")
+    @Test
+    void bookFindAllDtos() {
+        assertSelects(2, () -> bookService.findAllDtos().forEach(bookConverter::bookToString));
+    }
+
+    @DisplayName("BookService.findAllWithCommentCounts и findAllWithStoredCommentCounts")
+    @Test
+    void bookCommentCounts() {
+        assertSelects(1, () -> bookService.findAllWithCommentCounts()
+                .forEach(bookConverter::bookCommentsCountToString));
+        assertSelects(1, () -> bookService.findAllWithStoredCommentCounts()
+                .forEach(bookConverter::bookCommentsCountToString));
+    }
+
+    @DisplayName("BookService.insert")
+    @Test
+    void bookInsert() {
+        assertSelects(2, () -> bookConverter.bookToString(
+                bookService.insert("BookTitle_10500", 1L, Set.of(1L, 3L))));
+    }
+
+    // Книга с автором и жанрами, новый автор и новые жанры
+    @DisplayName("BookService.update")
+    @Test
+    void bookUpdate() {
+        assertSelects(3, () -> bookConverter.bookToString(
+                bookService.update(1L, "BookTitle_10500", 2L, Set.of(3L, 4L))));
+    }
+
+    @DisplayName("BookService.deleteById")
+    @Test
+    void bookDeleteById() {
+        assertSelects(2, () -> bookService.deleteById(1L));
+    }
+
+    @DisplayName("CommentService.findById")
+    @Test
+    void commentFindById() {
+        assertSelects(1, () -> commentService.findById(1L).map(commentConverter::commentToString));
+    }
+
+    @DisplayName("CommentService.findAllByBookId")
+    @Test
+    void commentFindAllByBookId() {
+        assertSelects(1, () -> commentService.findAllByBookId(1L).forEach(commentConverter::commentToString));
+    }
+
+    @DisplayName("CommentService.insert")
+    @Test
+    void commentInsert() {
+        assertSelects(1, () -> commentConverter.commentToString(commentService.insert("Comment", 1L)));
+    }
+
+    @DisplayName("CommentService.update")
+    @Test
+    void commentUpdate() {
+        assertSelects(1, () -> commentConverter.commentToString(commentService.update(1L, "Comment")));
+    }
+
+    @DisplayName("CommentService.deleteById")
+    @Test
+    void commentDeleteById() {
+        assertSelects(1, () -> commentService.deleteById(1L));
+    }
+
+    @DisplayName("AuthorService.findAll и GenreService.findAll")
+    @Test
+    void referenceFindAll() {
+        assertSelects(1, () -> authorService.findAll());
+        assertSelects(1, () -> genreService.findAll());
+    }
+
+    private void assertSelects(int expected, Runnable action) {
+        em.flush();
+        em.clear();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        List<String> selects = sqlStatementsCounter.statementsDuring("SELECT", () -> {
+            action.run();
+            em.flush();
+        });
+        // Обращения к последовательностям зависят от того, сколько id осталось в уже выделенном блоке
+        assertThat(selects).as("SELECT statements")
+                .filteredOn(sql -> !sql.startsWith(SEQUENCE_SELECT_PREFIX))
+                .hasSize(expected);
+    }
+}
@@ -1,20 +1,23 @@
-insert into authors(full_name)
-values ('Author_1'), ('Author_2'), ('Author_3');
+insert into authors(id, full_name)
+values (1, 'Author_1'), (2, 'Author_2'), (3, 'Author_3');
 
-insert into genres(name)
-values ('Genre_1'), ('Genre_2'), ('Genre_3'),
-       ('Genre_4'), ('Genre_5'), ('Genre_6');
+insert into genres(id, name)
+values (1, 'Genre_1'), (2, 'Genre_2'), (3, 'Genre_3'),
+       (4, 'Genre_4'), (5, 'Genre_5'), (6, 'Genre_6');
 
-insert into books(title, author_id)
-values ('BookTitle_1', 1), ('BookTitle_2', 2), ('BookTitle_3', 3);
+insert into books(id, title, author_id)
+values (1, 'BookTitle_1', 1), (2, 'BookTitle_2', 2), (3, 'BookTitle_3', 3);
 
 insert into books_genres(book_id, genre_id)
 values (1, 1),   (1, 2),
        (2, 3),   (2, 4),
        (3, 5),   (3, 6);
 
-insert into comments(text, book_id)
-values ('Comment_1 for BookTitle_1', 1),
-       ('Comment_2 for BookTitle_1', 1),
-       ('Comment_1 for BookTitle_2', 2),
-       ('Comment_1 for BookTitle_3', 3);
+insert into comments(id, text, book_id)
+values (1, 'Comment_1 for BookTitle_1', 1),
+       (2, 'Comment_2 for BookTitle_1', 1),
+       (3, 'Comment_1 for BookTitle_2', 2),
+       (4, 'Comment_1 for BookTitle_3', 3);
+
+update books b
+set comments_count = (select count(*) from comments c where c.book_id = b.id);
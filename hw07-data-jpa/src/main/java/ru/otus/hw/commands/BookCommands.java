@@ -1,8 +1,10 @@
 package ru.otus.hw.commands;
 
 import lombok.RequiredArgsConstructor;
+import org.jline.terminal.Terminal;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
 import ru.otus.hw.converters.BookConverter;
 import ru.otus.hw.services.BookService;
 
@@ -18,6 +20,8 @@ public class BookCommands {
 
     private final BookConverter bookConverter;
 
+    private final Terminal terminal;
+
     @ShellMethod(value = "Find all books", key = "ab")
     public String findAllBooks() {
         return bookService.findAll().stream()
@@ -25,6 +29,39 @@ public class BookCommands {
                 .collect(Collectors.joining("," + System.lineSeparator()));
     }
 
+    // Печатает книги по мере чтения, не собирая их в список
+    @ShellMethod(value = "Stream all books without genres", key = "abs")
+    public String streamBookSummaries() {
+        var writer = terminal.writer();
+        long count = bookService.forEachSummary(book -> writer.println(bookConverter.bookSummaryToString(book)));
+        writer.flush();
+        return "Printed %d books".formatted(count);
+    }
+
+    // abp 0 20, затем abp 1 20
+    @ShellMethod(value = "Find page of books without genres", key = "abp")
+    public String findBookSummariesPage(@ShellOption(defaultValue = "0") int page,
+                                        @ShellOption(defaultValue = "20") int size) {
+        var books = bookService.findSummariesSlice(page, size);
+        var content = books.stream()
+                .map(bookConverter::bookSummaryToString)
+                .collect(Collectors.joining("," + System.lineSeparator()));
+        return books.hasNext()
+                ? content + System.lineSeparator() + "Next page: abp %d %d".formatted(page + 1, size)
+                : content;
+    }
+
+    // abcc - подсчет GROUP BY по комментариям, abcc --stored - чтение столбца books.comments_count
+    @ShellMethod(value = "Find all books with comments counts", key = "abcc")
+    public String findAllBooksWithCommentCounts(@ShellOption(defaultValue = "false") boolean stored) {
+        var books = stored
+                ? bookService.findAllWithStoredCommentCounts()
+                : bookService.findAllWithCommentCounts();
+        return books.stream()
+                .map(bookConverter::bookCommentsCountToString)
+                .collect(Collectors.joining("," + System.lineSeparator()));
+    }
+
     @ShellMethod(value = "Find book by id", key = "bbid")
     public String findBookById(long id) {
         return bookService.findById(id)
@@ -46,6 +83,13 @@ public class BookCommands {
         return bookConverter.bookToString(savedBook);
     }
 
+    // bupda 1,2 3
+    @ShellMethod(value = "Update author of books", key = "bupda")
+    public String updateBooksAuthor(Set<Long> bookIds, long authorId) {
+        int updated = bookService.updateAuthor(bookIds, authorId);
+        return "Updated %d books".formatted(updated);
+    }
+
     // bdel 4
     @ShellMethod(value = "Delete book by id", key = "bdel")
     public void deleteBook(long id) {
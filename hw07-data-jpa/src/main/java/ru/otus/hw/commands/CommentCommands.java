@@ -1,8 +1,10 @@
 package ru.otus.hw.commands;
 
 import lombok.RequiredArgsConstructor;
+import org.jline.terminal.Terminal;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
 import ru.otus.hw.converters.CommentConverter;
 import ru.otus.hw.services.CommentService;
 
@@ -17,6 +19,8 @@ public class CommentCommands {
 
     private final CommentConverter commentConverter;
 
+    private final Terminal terminal;
+
     @ShellMethod(value = "Find all comments by book id", key = "acbi")
     public String findAllCommentsByBookId(long bookId) {
         return commentService.findAllByBookId(bookId).stream()
@@ -24,6 +28,29 @@ public class CommentCommands {
                 .collect(Collectors.joining("," + System.lineSeparator()));
     }
 
+    // acbp 1 0 20, затем acbp 1 1 20
+    @ShellMethod(value = "Find page of comments by book id", key = "acbp")
+    public String findCommentsPageByBookId(long bookId, @ShellOption(defaultValue = "0") int page,
+                                           @ShellOption(defaultValue = "20") int size) {
+        var comments = commentService.findSliceByBookId(bookId, page, size);
+        var content = comments.stream()
+                .map(commentConverter::commentToString)
+                .collect(Collectors.joining("," + System.lineSeparator()));
+        return comments.hasNext()
+                ? content + System.lineSeparator() + "Next page: acbp %d %d %d".formatted(bookId, page + 1, size)
+                : content;
+    }
+
+    // Печатает комментарии по мере чтения, не собирая их в список
+    @ShellMethod(value = "Stream all comments by book id", key = "acbs")
+    public String streamCommentsByBookId(long bookId) {
+        var writer = terminal.writer();
+        long count = commentService.forEachByBookId(bookId,
+                comment -> writer.println(commentConverter.commentToString(comment)));
+        writer.flush();
+        return "Printed %d comments".formatted(count);
+    }
+
     @ShellMethod(value = "Find comment by id", key = "cbid")
     public String findCommentById(long id) {
         return commentService.findById(id)
@@ -47,4 +74,10 @@ public class CommentCommands {
     public void deleteComment(long id) {
         commentService.deleteById(id);
     }
-}
\ No newline at end of file
+
+    @ShellMethod(value = "Delete all comments by book id", key = "cdelb")
+    public String deleteCommentsByBookId(long bookId) {
+        int deleted = commentService.deleteAllByBookId(bookId);
+        return "Deleted %d comments".formatted(deleted);
+    }
+}
@@ -2,6 +2,7 @@ package ru.otus.hw.converters;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.otus.hw.dto.BookCommentsCount;
 import ru.otus.hw.models.Book;
 
 import java.util.stream.Collectors;
@@ -24,4 +25,15 @@ public class BookConverter {
                 authorConverter.authorToString(book.getAuthor()),
                 genresString);
     }
+
+    public String bookSummaryToString(Book book) {
+        return "Id: %d, title: %s, author: {%s}".formatted(
+                book.getId(),
+                book.getTitle(),
+                authorConverter.authorToString(book.getAuthor()));
+    }
+
+    public String bookCommentsCountToString(BookCommentsCount book) {
+        return "Id: %d, title: %s, comments: %d".formatted(book.getBookId(), book.getTitle(), book.getCommentsCount());
+    }
 }
@@ -0,0 +1,10 @@
+package ru.otus.hw.dto;
+
+// Проекция Spring Data: строки запросов с псевдонимами bookId, title и commentsCount
+public interface BookCommentsCount {
+    long getBookId();
+
+    String getTitle();
+
+    long getCommentsCount();
+}
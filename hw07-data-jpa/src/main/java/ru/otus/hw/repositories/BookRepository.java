@@ -1,22 +1,73 @@
 package ru.otus.hw.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
+import ru.otus.hw.dto.BookCommentsCount;
+import ru.otus.hw.models.Author;
 import ru.otus.hw.models.Book;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+// План выборки выбирается методом: findById без графа - только строка книги (для изменения и ссылок),
+// findAll - краткий план с автором, findAllDetailedBy и findDetailedById - автор и жанры одним запросом.
+// Комментарии в граф с жанрами не входят: выборка двух списков-мешков одним запросом запрещена Hibernate
 public interface BookRepository extends JpaRepository<Book, Long> {
-    
-    @EntityGraph("book-with-author-and-genres")
-    @NonNull
-    @Override
-    Optional<Book> findById(@NonNull Long id);
-    
+
+    String STREAM_FETCH_SIZE = "500";
+
     @EntityGraph("book-with-author")
     @NonNull
     @Override
     List<Book> findAll();
+
+    @EntityGraph("book-with-author-and-genres")
+    List<Book> findAllDetailedBy();
+
+    // Краткий план курсором только вперед с чтением строк порциями по STREAM_FETCH_SIZE
+    @EntityGraph("book-with-author")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Book> streamAllByOrderById();
+
+    @EntityGraph("book-with-author")
+    Slice<Book> findSliceBy(Pageable pageable);
+
+    @EntityGraph("book-with-author-and-genres")
+    Optional<Book> findDetailedById(long id);
+
+    // Один запрос с GROUP BY: коллекции комментариев не инициализируются
+    @Query("select b.id as bookId, b.title as title, count(c.id) as commentsCount " +
+           "from Book b left join b.comments c " +
+           "group by b.id, b.title " +
+           "order by b.id")
+    List<BookCommentsCount> findAllWithCommentCounts();
+
+    // Столбец comments_count не отображен на сущность, поэтому читается и меняется нативными запросами
+    @Query(value = "select id as bookId, title, comments_count as commentsCount from books order by id",
+           nativeQuery = true)
+    List<BookCommentsCount> findAllWithStoredCommentCounts();
+
+    // Один UPDATE для всех книг вместо загрузки и сохранения каждой; контекст очищается как в deleteAllByBookId
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Book b set b.author = :author where b.id in :bookIds")
+    int updateAuthorByIdIn(@Param("bookIds") Collection<Long> bookIds, @Param("author") Author author);
+
+    @Modifying
+    @Query(value = "update books set comments_count = comments_count + :delta where id = :bookId",
+           nativeQuery = true)
+    void addCommentsCount(@Param("bookId") long bookId, @Param("delta") long delta);
 }
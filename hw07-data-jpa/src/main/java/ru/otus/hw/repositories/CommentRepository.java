@@ -1,11 +1,38 @@
 package ru.otus.hw.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.otus.hw.models.Comment;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    
+
+    String STREAM_FETCH_SIZE = "500";
+
     List<Comment> findAllByBookId(long bookId);
-}
\ No newline at end of file
+
+    // Курсор только вперед с чтением строк порциями по STREAM_FETCH_SIZE; поток закрывается внутри транзакции
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Comment> streamAllByBookIdOrderById(long bookId);
+
+    // Slice выбирает на одну строку больше размера страницы вместо отдельного запроса count
+    Slice<Comment> findSliceByBookId(long bookId, Pageable pageable);
+
+    // Один DELETE без загрузки комментариев. Запрос идет мимо контекста персистентности,
+    // поэтому несохраненные изменения сбрасываются до него, а контекст очищается после
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Comment c where c.book.id = :bookId")
+    int deleteAllByBookId(@Param("bookId") long bookId);
+}
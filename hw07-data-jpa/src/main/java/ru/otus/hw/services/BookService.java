@@ -1,19 +1,32 @@
 package ru.otus.hw.services;
 
+import org.springframework.data.domain.Slice;
+import ru.otus.hw.dto.BookCommentsCount;
 import ru.otus.hw.models.Book;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public interface BookService {
     Optional<Book> findById(long id);
 
     List<Book> findAll();
 
+    Slice<Book> findSummariesSlice(int page, int size);
+
+    long forEachSummary(Consumer<Book> action);
+
+    List<BookCommentsCount> findAllWithCommentCounts();
+
+    List<BookCommentsCount> findAllWithStoredCommentCounts();
+
     Book insert(String title, long authorId, Set<Long> genresIds);
 
     Book update(long id, String title, long authorId, Set<Long> genresIds);
 
+    int updateAuthor(Set<Long> bookIds, long authorId);
+
     void deleteById(long id);
 }
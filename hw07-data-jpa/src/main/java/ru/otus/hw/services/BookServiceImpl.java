@@ -1,18 +1,25 @@
 package ru.otus.hw.services;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.otus.hw.dto.BookCommentsCount;
 import ru.otus.hw.exceptions.EntityNotFoundException;
 import ru.otus.hw.models.Book;
 import ru.otus.hw.repositories.AuthorRepository;
 import ru.otus.hw.repositories.BookRepository;
+import ru.otus.hw.repositories.CommentRepository;
 import ru.otus.hw.repositories.GenreRepository;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.springframework.util.CollectionUtils.isEmpty;
 
@@ -25,10 +32,15 @@ public class BookServiceImpl implements BookService {
 
     private final BookRepository bookRepository;
 
+    private final CommentRepository commentRepository;
+
+    private final EntityManager entityManager;
+
+    // Детальный план: автор и жанры одним запросом, комментарии вторым
     @Override
     @Transactional(readOnly = true)
     public Optional<Book> findById(long id) {
-        Optional<Book> bookOpt = bookRepository.findById(id);
+        Optional<Book> bookOpt = bookRepository.findDetailedById(id);
         // Принудительно загружаем комментарии, вызывая size() для инициализации lazy-коллекции
         bookOpt.ifPresent(book -> {
             int commentsCount = book.getComments().size(); // Используем результат для принудительной загрузки
@@ -36,15 +48,46 @@ public class BookServiceImpl implements BookService {
         return bookOpt;
     }
 
+    // Жанры в том же запросе, что и книги: дешевле догрузки пачками по @BatchSize (см. BookFetchPlanBenchmark)
     @Override
     @Transactional(readOnly = true)
     public List<Book> findAll() {
-        List<Book> books = bookRepository.findAll();
-        // Принудительно загружаем жанры, вызывая size() для инициализации lazy-коллекции
-        books.forEach(book -> {
-            int genresCount = book.getGenres().size(); // Используем результат для принудительной загрузки
-        });
-        return books;
+        return bookRepository.findAllDetailedBy();
+    }
+
+    // Краткий план: книги с авторами без жанров
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Book> findSummariesSlice(int page, int size) {
+        return bookRepository.findSliceBy(PageRequest.of(page, size, Sort.by("id")));
+    }
+
+    // Полный просмотр кратким планом: обработанная книга отсоединяется от контекста персистентности,
+    // в нем остаются только авторы, число которых не растет с числом книг
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachSummary(Consumer<Book> action) {
+        long processed = 0;
+        try (var books = bookRepository.streamAllByOrderById()) {
+            for (var iterator = books.iterator(); iterator.hasNext(); processed++) {
+                var book = iterator.next();
+                action.accept(book);
+                entityManager.detach(book);
+            }
+        }
+        return processed;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookCommentsCount> findAllWithCommentCounts() {
+        return bookRepository.findAllWithCommentCounts();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookCommentsCount> findAllWithStoredCommentCounts() {
+        return bookRepository.findAllWithStoredCommentCounts();
     }
 
     @Override
@@ -89,9 +132,23 @@ public class BookServiceImpl implements BookService {
         return bookRepository.save(book);
     }
 
+    @Override
+    @Transactional
+    public int updateAuthor(Set<Long> bookIds, long authorId) {
+        if (isEmpty(bookIds)) {
+            throw new IllegalArgumentException("Books ids must not be empty");
+        }
+
+        var author = authorRepository.findById(authorId)
+                .orElseThrow(() -> new EntityNotFoundException("Author with id %d not found".formatted(authorId)));
+        return bookRepository.updateAuthorByIdIn(bookIds, author);
+    }
+
+    // Комментарии удаляются одним запросом, и каскад при удалении книги находит пустую коллекцию
     @Override
     @Transactional
     public void deleteById(long id) {
+        commentRepository.deleteAllByBookId(id);
         bookRepository.deleteById(id);
     }
 
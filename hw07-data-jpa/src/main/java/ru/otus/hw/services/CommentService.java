@@ -1,18 +1,26 @@
 package ru.otus.hw.services;
 
+import org.springframework.data.domain.Slice;
 import ru.otus.hw.models.Comment;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CommentService {
     Optional<Comment> findById(long id);
     
     List<Comment> findAllByBookId(long bookId);
+
+    Slice<Comment> findSliceByBookId(long bookId, int page, int size);
+
+    long forEachByBookId(long bookId, Consumer<Comment> action);
     
     Comment insert(String text, long bookId);
     
     Comment update(long id, String text);
     
     void deleteById(long id);
+
+    int deleteAllByBookId(long bookId);
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package ru.otus.hw.services;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.otus.hw.exceptions.EntityNotFoundException;
@@ -11,6 +15,7 @@ import ru.otus.hw.repositories.CommentRepository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @RequiredArgsConstructor
 @Service
@@ -20,6 +25,8 @@ public class CommentServiceImpl implements CommentService {
 
     private final BookRepository bookRepository;
 
+    private final EntityManager entityManager;
+
     @Override
     @Transactional(readOnly = true)
     public Optional<Comment> findById(long id) {
@@ -32,13 +39,37 @@ public class CommentServiceImpl implements CommentService {
         return commentRepository.findAllByBookId(bookId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Comment> findSliceByBookId(long bookId, int page, int size) {
+        return commentRepository.findSliceByBookId(bookId, PageRequest.of(page, size, Sort.by("id")));
+    }
+
+    // Поток открыт только внутри транзакции, поэтому комментарии передаются обработчику, а не возвращаются.
+    // Обработанный комментарий отсоединяется, и контекст персистентности не хранит все прочитанные строки
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachByBookId(long bookId, Consumer<Comment> action) {
+        long processed = 0;
+        try (var comments = commentRepository.streamAllByBookIdOrderById(bookId)) {
+            for (var iterator = comments.iterator(); iterator.hasNext(); processed++) {
+                var comment = iterator.next();
+                action.accept(comment);
+                entityManager.detach(comment);
+            }
+        }
+        return processed;
+    }
+
     @Override
     @Transactional
     public Comment insert(String text, long bookId) {
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new EntityNotFoundException("Book with id %d not found".formatted(bookId)));
         Comment comment = new Comment(0, text, book);
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        bookRepository.addCommentsCount(bookId, 1);
+        return savedComment;
     }
 
     @Override
@@ -50,9 +81,24 @@ public class CommentServiceImpl implements CommentService {
         return commentRepository.save(comment);
     }
 
+    // Счетчик comments_count уменьшается на число удаленных строк, поэтому остается согласованным
+    @Override
+    @Transactional
+    public int deleteAllByBookId(long bookId) {
+        int deleted = commentRepository.deleteAllByBookId(bookId);
+        if (deleted > 0) {
+            bookRepository.addCommentsCount(bookId, -deleted);
+        }
+        return deleted;
+    }
+
     @Override
     @Transactional
     public void deleteById(long id) {
-        commentRepository.deleteById(id);
+        commentRepository.findById(id).ifPresent(comment -> {
+            long bookId = comment.getBook().getId();
+            commentRepository.delete(comment);
+            bookRepository.addCommentsCount(bookId, -1);
+        });
     }
 }
\ No newline at end of file
@@ -18,3 +18,6 @@ values ('Comment_1 for BookTitle_1', 1),
        ('Comment_2 for BookTitle_1', 1),
        ('Comment_1 for BookTitle_2', 2),
        ('Comment_1 for BookTitle_3', 3);
+
+update books b
+set comments_count = (select count(*) from comments c where c.book_id = b.id);
@@ -10,10 +10,12 @@ create table genres (
     primary key (id)
 );
 
+-- comments_count - число комментариев книги, поддерживаемое CommentService для чтения без агрегации
 create table books (
     id bigserial,
     title varchar(255),
     author_id bigint references authors (id) on delete cascade,
+    comments_count bigint default 0 not null,
     primary key (id)
 );
 
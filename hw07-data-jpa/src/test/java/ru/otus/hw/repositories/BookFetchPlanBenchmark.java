@@ -0,0 +1,152 @@
+package ru.otus.hw.repositories;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.otus.hw.Application;
+import ru.otus.hw.converters.BookConverter;
+import ru.otus.hw.models.Book;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Планы выборки книг BookRepository на 10k книгах с двумя жанрами и пятью комментариями у каждой.
+// Каждый вызов выполняется в своей транзакции только для чтения и доводит результат до строк, как команды shell
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookFetchPlanBenchmark {
+
+    private static final int BOOKS_COUNT = 10_000;
+
+    private static final int AUTHORS_COUNT = 50;
+
+    private static final int GENRES_COUNT = 20;
+
+    private static final int COMMENTS_PER_BOOK = 5;
+
+    private ConfigurableApplicationContext context;
+
+    private BookRepository bookRepository;
+
+    private BookConverter bookConverter;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private long nextBookId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:book_fetch_plan_bench",
+                        "--spring.shell.interactive.enabled=false",
+                        "--spring.shell.noninteractive.enabled=false",
+                        "--spring.jpa.show-sql=false");
+        bookRepository = context.getBean(BookRepository.class);
+        bookConverter = context.getBean(BookConverter.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        // Книги, жанры и комментарии из data.sql (id 1-3) остаются
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.execute("insert into authors(id, full_name) select x, 'Author_' || x from system_range(4, "
+                + AUTHORS_COUNT + ")");
+        jdbc.execute("insert into genres(id, name) select x, 'Genre_' || x from system_range(7, "
+                + GENRES_COUNT + ")");
+        jdbc.execute("insert into books(id, title, author_id) select x, 'BookTitle_' || x, mod(x, "
+                + AUTHORS_COUNT + ") + 1 from system_range(4, " + BOOKS_COUNT + ")");
+        jdbc.execute("insert into books_genres(book_id, genre_id) select id, mod(id, " + GENRES_COUNT
+                + ") + 1 from books where id > 3");
+        jdbc.execute("insert into books_genres(book_id, genre_id) select id, mod(id + 7, " + GENRES_COUNT
+                + ") + 1 from books where id > 3");
+        jdbc.execute("insert into comments(id, text, book_id) select x, 'Comment_' || x, x / " + COMMENTS_PER_BOOK
+                + " + 1 from system_range(100, " + (BOOKS_COUNT * COMMENTS_PER_BOOK - 1) + ")");
+        jdbc.execute("alter table comments alter column id restart with " + (BOOKS_COUNT * COMMENTS_PER_BOOK));
+        nextBookId = 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Краткий план: название и автор без жанров
+    @Benchmark
+    public List<String> findAllSummary() {
+        return readOnlyTransaction.execute(status -> bookRepository.findAll().stream()
+                .map(book -> book.getTitle() + " " + book.getAuthor().getFullName())
+                .toList());
+    }
+
+    // Краткий план с жанрами, догружаемыми пачками по @BatchSize(10)
+    @Benchmark
+    public List<String> findAllSummaryWithBatchedGenres() {
+        return readOnlyTransaction.execute(status -> bookRepository.findAll().stream()
+                .map(bookConverter::bookToString)
+                .toList());
+    }
+
+    // Детальный план: автор и жанры одним запросом
+    @Benchmark
+    public List<String> findAllDetailed() {
+        return readOnlyTransaction.execute(status -> bookRepository.findAllDetailedBy().stream()
+                .map(bookConverter::bookToString)
+                .toList());
+    }
+
+    @Benchmark
+    public String findByIdPlain() {
+        long id = nextId();
+        return readOnlyTransaction.execute(status -> bookRepository.findById(id).map(Book::getTitle).orElseThrow());
+    }
+
+    @Benchmark
+    public String findByIdDetailed() {
+        long id = nextId();
+        return readOnlyTransaction.execute(status -> bookRepository.findDetailedById(id)
+                .map(bookConverter::bookToString).orElseThrow());
+    }
+
+    // Детальный план и комментарии вторым запросом
+    @Benchmark
+    public int findByIdDetailedWithComments() {
+        long id = nextId();
+        return readOnlyTransaction.execute(status -> bookRepository.findDetailedById(id)
+                .map(book -> bookConverter.bookToString(book).length() + book.getComments().size())
+                .orElseThrow());
+    }
+
+    private long nextId() {
+        nextBookId = nextBookId % BOOKS_COUNT + 1;
+        return nextBookId;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookFetchPlanBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
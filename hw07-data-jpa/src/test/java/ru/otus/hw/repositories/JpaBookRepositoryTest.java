@@ -8,8 +8,10 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.otus.hw.dto.BookCommentsCount;
 import ru.otus.hw.models.Author;
 import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Comment;
 import ru.otus.hw.models.Genre;
 
 import java.util.ArrayList;
@@ -17,6 +19,7 @@ import java.util.List;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DisplayName("Репозиторий на основе Spring Data JPA для работы с книгами ")
 @DataJpaTest
@@ -45,7 +48,7 @@ class JpaBookRepositoryTest {
     @ParameterizedTest
     @MethodSource("getDbBooks")
     void shouldReturnCorrectBookById(Book expectedBook) {
-        var actualBook = repository.findById(expectedBook.getId());
+        var actualBook = repository.findDetailedById(expectedBook.getId());
         assertThat(actualBook).isPresent()
                 .get()
                 .usingRecursiveComparison()
@@ -65,6 +68,31 @@ class JpaBookRepositoryTest {
                 .allMatch(book -> !book.getGenres().isEmpty());
     }
 
+    @DisplayName("должен подсчитывать комментарии книг запросом GROUP BY")
+    @Test
+    void shouldCountCommentsPerBook() {
+        var actualCounts = repository.findAllWithCommentCounts();
+
+        assertThat(actualCounts).filteredOn(count -> count.getBookId() <= 3)
+                .extracting(BookCommentsCount::getBookId, BookCommentsCount::getTitle,
+                        BookCommentsCount::getCommentsCount)
+                .containsExactly(tuple(1L, "BookTitle_1", 2L), tuple(2L, "BookTitle_2", 1L),
+                        tuple(3L, "BookTitle_3", 1L));
+    }
+
+    @DisplayName("должен читать счетчики комментариев, совпадающие с подсчетом GROUP BY")
+    @Test
+    void shouldReturnStoredCommentCountsMatchingAggregation() {
+        repository.addCommentsCount(1L, 1);
+        em.persist(new Comment(0, "New Comment", em.find(Book.class, 1L)));
+
+        assertThat(repository.findAllWithStoredCommentCounts())
+                .extracting(BookCommentsCount::getBookId, BookCommentsCount::getCommentsCount)
+                .containsExactlyElementsOf(repository.findAllWithCommentCounts().stream()
+                        .map(count -> tuple(count.getBookId(), count.getCommentsCount()))
+                        .toList());
+    }
+
     @DisplayName("должен сохранять новую книгу")
     @Test
     void shouldSaveNewBook() {
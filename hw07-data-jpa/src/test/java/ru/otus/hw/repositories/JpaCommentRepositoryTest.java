@@ -49,6 +49,15 @@ class JpaCommentRepositoryTest {
                 .allMatch(c -> c.getBook() != null);
     }
 
+    @DisplayName("должен читать комментарии книги потоком в порядке id")
+    @Test
+    void shouldStreamCommentsByBookId() {
+        try (var comments = repository.streamAllByBookIdOrderById(book.getId())) {
+            assertThat(comments).extracting(Comment::getText)
+                    .containsExactly("Comment_1 for BookTitle_1", "Comment_2 for BookTitle_1");
+        }
+    }
+
     @DisplayName("должен сохранять новый комментарий")
     @Test
     void shouldSaveNewComment() {
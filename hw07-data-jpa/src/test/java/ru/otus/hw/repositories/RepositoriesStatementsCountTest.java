@@ -0,0 +1,176 @@
+package ru.otus.hw.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.otus.hw.converters.AuthorConverter;
+import ru.otus.hw.converters.BookConverter;
+import ru.otus.hw.converters.CommentConverter;
+import ru.otus.hw.converters.GenreConverter;
+import ru.otus.hw.models.Author;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Comment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Точное число SELECT для каждого метода репозиториев при пустом контексте персистентности.
+// Обращение к ленивым связям, которые нужны конвертерам, входит в замер
+@DisplayName("Число запросов репозиториев Spring Data JPA ")
+@DataJpaTest
+@Import({SqlStatementsCounter.class, BookConverter.class, AuthorConverter.class, GenreConverter.class,
+        CommentConverter.class})
+class RepositoriesStatementsCountTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private BookConverter bookConverter;
+
+    @Autowired
+    private CommentConverter commentConverter;
+
+    @Autowired
+    private SqlStatementsCounter sqlStatementsCounter;
+
+    @Autowired
+    private TestEntityManager em;
+
+    // Без графа загружается только строка книги
+    @DisplayName("BookRepository.findById")
+    @Test
+    void bookFindById() {
+        assertSelects(1, () -> bookRepository.findById(1L).orElseThrow().getTitle());
+    }
+
+    @DisplayName("BookRepository.findDetailedById")
+    @Test
+    void bookFindDetailedById() {
+        assertSelects(1, () -> bookConverter.bookToString(bookRepository.findDetailedById(1L).orElseThrow()));
+    }
+
+    @DisplayName("BookRepository.findAll")
+    @Test
+    void bookFindAll() {
+        assertSelects(1, () -> bookRepository.findAll().forEach(bookConverter::bookSummaryToString));
+    }
+
+    // Жанры при краткой выборке догружаются одной пачкой (@BatchSize)
+    @DisplayName("BookRepository.findAll с обращением к жанрам")
+    @Test
+    void bookFindAllWithGenres() {
+        assertSelects(2, () -> bookRepository.findAll().forEach(bookConverter::bookToString));
+    }
+
+    @DisplayName("BookRepository.findAllDetailedBy")
+    @Test
+    void bookFindAllDetailed() {
+        assertSelects(1, () -> bookRepository.findAllDetailedBy().forEach(bookConverter::bookToString));
+    }
+
+    @DisplayName("BookRepository.findAllWithCommentCounts и findAllWithStoredCommentCounts")
+    @Test
+    void bookCommentCounts() {
+        assertSelects(1, () -> bookRepository.findAllWithCommentCounts());
+        assertSelects(1, () -> bookRepository.findAllWithStoredCommentCounts());
+    }
+
+    @DisplayName("BookRepository.save новой книги")
+    @Test
+    void bookSaveNew() {
+        assertSelects(0, () -> bookRepository.save(new Book(0, "BookTitle_10500", em.getEntityManager()
+                .getReference(Author.class, 1L), new ArrayList<>(), new ArrayList<>())));
+    }
+
+    // Загрузка книги и ее комментариев для каскадного удаления
+    @DisplayName("BookRepository.deleteById")
+    @Test
+    void bookDeleteById() {
+        assertSelects(2, () -> bookRepository.deleteById(1L));
+    }
+
+    @DisplayName("BookRepository.updateAuthorByIdIn")
+    @Test
+    void bookUpdateAuthorByIdIn() {
+        assertSelects(0, () -> bookRepository.updateAuthorByIdIn(List.of(1L, 2L),
+                em.getEntityManager().getReference(Author.class, 3L)));
+        assertStatements("UPDATE", 1, () -> bookRepository.updateAuthorByIdIn(List.of(1L, 2L),
+                em.getEntityManager().getReference(Author.class, 2L)));
+    }
+
+    @DisplayName("CommentRepository.findById")
+    @Test
+    void commentFindById() {
+        assertSelects(1, () -> commentConverter.commentToString(commentRepository.findById(1L).orElseThrow()));
+    }
+
+    @DisplayName("CommentRepository.findAllByBookId")
+    @Test
+    void commentFindAllByBookId() {
+        assertSelects(1, () -> commentRepository.findAllByBookId(1L).forEach(commentConverter::commentToString));
+    }
+
+    @DisplayName("CommentRepository.save нового комментария")
+    @Test
+    void commentSaveNew() {
+        assertSelects(0, () -> commentRepository.save(
+                new Comment(0, "Comment", em.getEntityManager().getReference(Book.class, 1L))));
+    }
+
+    @DisplayName("CommentRepository.deleteById")
+    @Test
+    void commentDeleteById() {
+        assertSelects(1, () -> commentRepository.deleteById(1L));
+    }
+
+    @DisplayName("CommentRepository.deleteAllByBookId")
+    @Test
+    void commentDeleteAllByBookId() {
+        assertSelects(0, () -> commentRepository.deleteAllByBookId(1L));
+        assertStatements("DELETE", 1, () -> commentRepository.deleteAllByBookId(2L));
+    }
+
+    @DisplayName("AuthorRepository.findAll и findById")
+    @Test
+    void authorFinders() {
+        assertSelects(1, () -> authorRepository.findAll());
+        assertSelects(1, () -> authorRepository.findById(1L));
+    }
+
+    @DisplayName("GenreRepository.findAll и findAllByIdIn")
+    @Test
+    void genreFinders() {
+        assertSelects(1, () -> genreRepository.findAll());
+        assertSelects(1, () -> genreRepository.findAllByIdIn(Set.of(1L, 2L, 3L)));
+    }
+
+    private void assertSelects(int expected, Runnable action) {
+        assertStatements("SELECT", expected, action);
+    }
+
+    private void assertStatements(String sqlPrefix, int expected, Runnable action) {
+        em.flush();
+        em.clear();
+        List<String> statements = sqlStatementsCounter.statementsDuring(sqlPrefix, () -> {
+            action.run();
+            em.flush();
+        });
+        assertThat(statements).as(sqlPrefix + " statements").hasSize(expected);
+    }
+}
@@ -0,0 +1,101 @@
+package ru.otus.hw.repositories;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Оборачивает DataSource и запоминает SQL каждого подготовленного или выполненного запроса.
+// Пакетный запрос (batchUpdate) учитывается один раз. Используется в тестах числа запросов,
+// которые ловят возврат N+1 в репозиториях и сервисах
+public class SqlStatementsCounter implements BeanPostProcessor {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? proxyConnection(connection) : result;
+            });
+        }
+        return bean;
+    }
+
+    public void clear() {
+        statements.clear();
+    }
+
+    public List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    public long count(String sqlPrefix) {
+        String prefix = normalize(sqlPrefix);
+        return statements.stream().filter(sql -> sql.startsWith(prefix)).count();
+    }
+
+    // Выполняет действие и возвращает запросы, начинающиеся с sqlPrefix, в порядке выполнения
+    public List<String> statementsDuring(String sqlPrefix, Runnable action) {
+        clear();
+        action.run();
+        String prefix = normalize(sqlPrefix);
+        return statements.stream().filter(sql -> sql.startsWith(prefix)).toList();
+    }
+
+    private Connection proxyConnection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            String name = method.getName();
+            if ((name.equals("prepareStatement") || name.equals("prepareCall")) && args[0] instanceof String sql) {
+                statements.add(normalize(sql));
+            }
+            Object result = invoke(target, method, args);
+            if (name.equals("createStatement") && result instanceof Statement statement) {
+                return proxyStatement(statement);
+            }
+            return result;
+        });
+    }
+
+    private Statement proxyStatement(Statement statement) {
+        return proxy(Statement.class, statement, (target, method, args) -> {
+            if (method.getName().startsWith("execute") && args != null && args.length > 0
+                    && args[0] instanceof String sql) {
+                statements.add(normalize(sql));
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private static String normalize(String sql) {
+        return sql.strip().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, TargetInvocationHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TargetInvocationHandler {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -11,10 +11,13 @@ import ru.otus.hw.models.Author;
 import ru.otus.hw.models.Book;
 import ru.otus.hw.models.Genre;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DisplayName("Интеграционные тесты сервиса книг")
 @DataJpaTest
@@ -25,6 +28,31 @@ class BookServiceIntegrationTest {
     @Autowired
     private BookService bookService;
 
+    @DisplayName("должен обходить все книги кратким планом с доступным автором")
+    @Test
+    void shouldVisitAllBookSummariesWithAccessibleAuthor() {
+        var visited = new ArrayList<String>();
+
+        long processed = bookService.forEachSummary(book ->
+                visited.add(book.getTitle() + " " + book.getAuthor().getFullName()));
+
+        assertThat(processed).isEqualTo(3);
+        assertThat(visited).containsExactly("BookTitle_1 Author_1", "BookTitle_2 Author_2", "BookTitle_3 Author_3");
+    }
+
+    @DisplayName("должен возвращать книги срезами без подсчета общего количества")
+    @Test
+    void shouldReturnBookSummariesSlices() {
+        var first = bookService.findSummariesSlice(0, 2);
+        var last = bookService.findSummariesSlice(1, 2);
+
+        assertThat(first.getContent()).extracting(Book::getId).containsExactly(1L, 2L);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting(Book::getId).containsExactly(3L);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.getContent().get(0).getAuthor().getFullName()).isEqualTo("Author_3");
+    }
+
     @DisplayName("должен возвращать книгу по id с доступными связями без LazyInitializationException")
     @Test
     void shouldReturnBookByIdWithAccessibleRelationships() {
@@ -177,4 +205,27 @@ class BookServiceIntegrationTest {
                 .ignoringFieldsOfTypes(java.util.ArrayList.class) // игнорируем конкретный тип списка
                 .isEqualTo(expectedBook);
     }
+
+    @DisplayName("должен менять автора книг одним запросом и не возвращать устаревшие сущности")
+    @Test
+    @Transactional
+    void shouldUpdateAuthorOfBooksAndClearPersistenceContext() {
+        var staleBook = bookService.findById(1L).orElseThrow();
+        assertThat(staleBook.getAuthor().getFullName()).isEqualTo("Author_1");
+
+        int updated = bookService.updateAuthor(Set.of(1L, 2L), 3L);
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(bookService.findAll())
+                .extracting(Book::getId, book -> book.getAuthor().getFullName())
+                .containsExactlyInAnyOrder(tuple(1L, "Author_3"), tuple(2L, "Author_3"), tuple(3L, "Author_3"));
+    }
+
+    @DisplayName("должен отклонять изменение автора для пустого списка книг")
+    @Test
+    void shouldRejectUpdateAuthorOfNoBooks() {
+        assertThatThrownBy(() -> bookService.updateAuthor(Set.of(), 1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Books ids must not be empty");
+    }
 }
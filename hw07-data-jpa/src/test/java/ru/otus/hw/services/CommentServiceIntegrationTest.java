@@ -3,17 +3,21 @@ package ru.otus.hw.services;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.transaction.annotation.Transactional;
+import ru.otus.hw.dto.BookCommentsCount;
 import ru.otus.hw.models.Author;
 import ru.otus.hw.models.Book;
 import ru.otus.hw.models.Comment;
 import ru.otus.hw.models.Genre;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DisplayName("Интеграционные тесты сервиса комментариев")
 @DataJpaTest
@@ -23,6 +27,70 @@ class CommentServiceIntegrationTest {
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @DisplayName("должен поддерживать счетчик комментариев книги при вставке и удалении")
+    @Test
+    @Transactional
+    void shouldKeepStoredCommentsCountInSync() {
+        commentService.insert("New Comment", 3L);
+        commentService.insert("Another Comment", 3L);
+        commentService.deleteById(4L);
+
+        var storedCounts = bookService.findAllWithStoredCommentCounts();
+
+        assertThat(storedCounts).filteredOn(count -> count.getBookId() == 3L)
+                .extracting(BookCommentsCount::getCommentsCount).containsExactly(2L);
+        assertThat(storedCounts)
+                .extracting(BookCommentsCount::getBookId, BookCommentsCount::getCommentsCount)
+                .containsExactlyElementsOf(bookService.findAllWithCommentCounts().stream()
+                        .map(count -> tuple(count.getBookId(), count.getCommentsCount()))
+                        .toList());
+    }
+
+    @DisplayName("должен удалять все комментарии книги одним запросом и обнулять счетчик")
+    @Test
+    void shouldDeleteAllCommentsByBookId() {
+        var staleComment = commentService.findById(1L).orElseThrow();
+
+        int deleted = commentService.deleteAllByBookId(1L);
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(commentService.findById(staleComment.getId())).isEmpty();
+        assertThat(commentService.findAllByBookId(1L)).isEmpty();
+        assertThat(bookService.findAllWithStoredCommentCounts())
+                .extracting(BookCommentsCount::getBookId, BookCommentsCount::getCommentsCount)
+                .containsExactly(tuple(1L, 0L), tuple(2L, 1L), tuple(3L, 1L));
+    }
+
+    @DisplayName("должен обходить комментарии книги по порядку и отсоединять обработанные")
+    @Test
+    void shouldVisitCommentsByBookIdAndDetachThem() {
+        var visited = new ArrayList<Comment>();
+
+        long processed = commentService.forEachByBookId(1L, visited::add);
+
+        assertThat(processed).isEqualTo(2);
+        assertThat(visited).extracting(Comment::getId).containsExactly(1L, 2L);
+        assertThat(visited).noneMatch(em.getEntityManager()::contains);
+    }
+
+    @DisplayName("должен возвращать комментарии книги срезами")
+    @Test
+    void shouldReturnCommentsByBookIdSlices() {
+        var first = commentService.findSliceByBookId(1L, 0, 1);
+        var last = commentService.findSliceByBookId(1L, 1, 1);
+
+        assertThat(first.getContent()).extracting(Comment::getId).containsExactly(1L);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting(Comment::getId).containsExactly(2L);
+        assertThat(last.hasNext()).isFalse();
+    }
+
     @DisplayName("должен возвращать комментарий по id с доступными связями без LazyInitializationException")
     @Test
     void shouldReturnCommentByIdWithAccessibleRelationships() {
@@ -167,6 +235,8 @@ class CommentServiceIntegrationTest {
 
         assertThat(actualComment).usingRecursiveComparison()
                 .ignoringFields("book.comments") // избегаем циклических ссылок
+                // книга загружается без графа, автор - прокси Hibernate, его поля проверены выше
+                .ignoringFields("book.author")
                 .isEqualTo(expectedComment);
     }
 
@@ -0,0 +1,179 @@
+package ru.otus.hw.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.otus.hw.converters.AuthorConverter;
+import ru.otus.hw.converters.BookConverter;
+import ru.otus.hw.converters.CommentConverter;
+import ru.otus.hw.converters.GenreConverter;
+import ru.otus.hw.repositories.SqlStatementsCounter;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Точное число SELECT для каждого метода сервисов вместе с выводом результата конвертерами,
+// как это делают команды shell. Контекст персистентности перед замером очищается
+@DisplayName("Число запросов сервисов ")
+@DataJpaTest
+@Import({BookServiceImpl.class, CommentServiceImpl.class, AuthorServiceImpl.class, GenreServiceImpl.class,
+        BookConverter.class, AuthorConverter.class, GenreConverter.class, CommentConverter.class,
+        SqlStatementsCounter.class})
+class ServicesStatementsCountTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private BookConverter bookConverter;
+
+    @Autowired
+    private CommentConverter commentConverter;
+
+    @Autowired
+    private SqlStatementsCounter sqlStatementsCounter;
+
+    @Autowired
+    private TestEntityManager em;
+
+    // Книга с автором и жанрами по графу сущности и комментарии, которые сервис инициализирует
+    @DisplayName("BookService.findById")
+    @Test
+    void bookFindById() {
+        assertSelects(2, () -> bookService.findById(1L).map(bookConverter::bookToString));
+    }
+
+    @DisplayName("BookService.findAll")
+    @Test
+    void bookFindAll() {
+        assertSelects(1, () -> bookService.findAll().forEach(bookConverter::bookToString));
+    }
+
+    @DisplayName("BookService.forEachSummary и findSummariesSlice")
+    @Test
+    void bookSummaries() {
+        assertSelects(1, () -> bookService.forEachSummary(bookConverter::bookSummaryToString));
+        assertSelects(1, () -> bookService.findSummariesSlice(0, 2).forEach(bookConverter::bookSummaryToString));
+    }
+
+    @DisplayName("BookService.findAllWithCommentCounts и findAllWithStoredCommentCounts")
+    @Test
+    void bookCommentCounts() {
+        assertSelects(1, () -> bookService.findAllWithCommentCounts()
+                .forEach(bookConverter::bookCommentsCountToString));
+        assertSelects(1, () -> bookService.findAllWithStoredCommentCounts()
+                .forEach(bookConverter::bookCommentsCountToString));
+    }
+
+    @DisplayName("BookService.insert")
+    @Test
+    void bookInsert() {
+        assertSelects(2, () -> bookConverter.bookToString(
+                bookService.insert("BookTitle_10500", 1L, Set.of(1L, 3L))));
+    }
+
+    // Только строка книги, новый автор и новые жанры
+    @DisplayName("BookService.update")
+    @Test
+    void bookUpdate() {
+        assertSelects(3, () -> bookConverter.bookToString(
+                bookService.update(1L, "BookTitle_10500", 2L, Set.of(3L, 4L))));
+    }
+
+    // Комментарии удаляются одним запросом до загрузки книги, каскад находит пустую коллекцию
+    @DisplayName("BookService.deleteById")
+    @Test
+    void bookDeleteById() {
+        assertSelects(2, () -> bookService.deleteById(1L));
+        assertStatements("DELETE FROM COMMENTS", 1, () -> bookService.deleteById(2L));
+    }
+
+    // Проверка автора и один UPDATE для всех книг
+    @DisplayName("BookService.updateAuthor")
+    @Test
+    void bookUpdateAuthor() {
+        assertSelects(1, () -> bookService.updateAuthor(Set.of(1L, 2L, 3L), 1L));
+        assertStatements("UPDATE BOOKS", 1, () -> bookService.updateAuthor(Set.of(1L, 2L, 3L), 2L));
+    }
+
+    @DisplayName("CommentService.findById")
+    @Test
+    void commentFindById() {
+        assertSelects(1, () -> commentService.findById(1L).map(commentConverter::commentToString));
+    }
+
+    @DisplayName("CommentService.findAllByBookId")
+    @Test
+    void commentFindAllByBookId() {
+        assertSelects(1, () -> commentService.findAllByBookId(1L).forEach(commentConverter::commentToString));
+    }
+
+    @DisplayName("CommentService.forEachByBookId и findSliceByBookId")
+    @Test
+    void commentStreamAndSliceByBookId() {
+        assertSelects(1, () -> commentService.forEachByBookId(1L, commentConverter::commentToString));
+        assertSelects(1, () -> commentService.findSliceByBookId(1L, 0, 1).forEach(commentConverter::commentToString));
+    }
+
+    @DisplayName("CommentService.insert")
+    @Test
+    void commentInsert() {
+        assertSelects(1, () -> commentConverter.commentToString(commentService.insert("Comment", 1L)));
+    }
+
+    @DisplayName("CommentService.update")
+    @Test
+    void commentUpdate() {
+        assertSelects(1, () -> commentConverter.commentToString(commentService.update(1L, "Comment")));
+    }
+
+    @DisplayName("CommentService.deleteById")
+    @Test
+    void commentDeleteById() {
+        assertSelects(1, () -> commentService.deleteById(1L));
+    }
+
+    // Один DELETE и одно изменение счетчика без загрузки комментариев
+    @DisplayName("CommentService.deleteAllByBookId")
+    @Test
+    void commentDeleteAllByBookId() {
+        assertSelects(0, () -> commentService.deleteAllByBookId(1L));
+        assertStatements("DELETE", 1, () -> commentService.deleteAllByBookId(2L));
+        assertStatements("UPDATE", 1, () -> commentService.deleteAllByBookId(3L));
+    }
+
+    @DisplayName("AuthorService.findAll и GenreService.findAll")
+    @Test
+    void referenceFindAll() {
+        assertSelects(1, () -> authorService.findAll());
+        assertSelects(1, () -> genreService.findAll());
+    }
+
+    private void assertSelects(int expected, Runnable action) {
+        assertStatements("SELECT", expected, action);
+    }
+
+    private void assertStatements(String sqlPrefix, int expected, Runnable action) {
+        em.flush();
+        em.clear();
+        List<String> statements = sqlStatementsCounter.statementsDuring(sqlPrefix, () -> {
+            action.run();
+            em.flush();
+        });
+        assertThat(statements).as(sqlPrefix + " statements").hasSize(expected);
+    }
+}
@@ -22,4 +22,11 @@ public class AuthorCommands {
                 .map(authorConverter::authorToString)
                 .collect(Collectors.joining("," + System.lineSeparator()));
     }
+
+    // aupd 1 "New Name"
+    @ShellMethod(value = "Update author", key = "aupd")
+    public String updateAuthor(String id, String fullName) {
+        var savedAuthor = authorService.update(id, fullName);
+        return authorConverter.authorToString(savedAuthor);
+    }
 }
@@ -4,8 +4,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import ru.otus.hw.converters.BookConverter;
+import ru.otus.hw.dto.StaleEmbedding;
+import ru.otus.hw.services.BookEmbeddingsService;
 import ru.otus.hw.services.BookService;
 
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -16,6 +19,8 @@ public class BookCommands {
 
     private final BookService bookService;
 
+    private final BookEmbeddingsService bookEmbeddingsService;
+
     private final BookConverter bookConverter;
 
     @ShellMethod(value = "Find all books", key = "ab")
@@ -51,4 +56,29 @@ public class BookCommands {
     public void deleteBook(String id) {
         bookService.deleteById(id);
     }
+
+    // Embedded authors and genres whose names differ from the authors and genres collections
+    @ShellMethod(value = "Find stale embedded authors and genres of books", key = "bsec")
+    public String findStaleEmbeddings() {
+        return staleEmbeddingsToString(bookEmbeddingsService.findStaleEmbeddings());
+    }
+
+    @ShellMethod(value = "Repair stale embedded authors and genres of books", key = "bser")
+    public String repairStaleEmbeddings() {
+        var staleEmbeddings = bookEmbeddingsService.repairStaleEmbeddings();
+        String report = staleEmbeddingsToString(staleEmbeddings);
+        if (staleEmbeddings.stream().anyMatch(staleEmbedding -> staleEmbedding.getActualName() == null)) {
+            report += System.lineSeparator() + "Copies of deleted authors and genres were left as they are";
+        }
+        return report;
+    }
+
+    private String staleEmbeddingsToString(List<StaleEmbedding> staleEmbeddings) {
+        if (staleEmbeddings.isEmpty()) {
+            return "All embedded authors and genres are up to date";
+        }
+        return staleEmbeddings.stream()
+                .map(bookConverter::staleEmbeddingToString)
+                .collect(Collectors.joining("," + System.lineSeparator()));
+    }
 }
@@ -22,4 +22,11 @@ public class GenreCommands {
                 .map(genreConverter::genreToString)
                 .collect(Collectors.joining("," + System.lineSeparator()));
     }
+
+    // gupd 1 "New Name"
+    @ShellMethod(value = "Update genre", key = "gupd")
+    public String updateGenre(String id, String name) {
+        var savedGenre = genreService.update(id, name);
+        return genreConverter.genreToString(savedGenre);
+    }
 }
@@ -2,6 +2,7 @@ package ru.otus.hw.converters;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.otus.hw.dto.StaleEmbedding;
 import ru.otus.hw.models.Book;
 
 import java.util.stream.Collectors;
@@ -24,4 +25,13 @@ public class BookConverter {
                 authorConverter.authorToString(book.getAuthor()),
                 genresString);
     }
+
+    public String staleEmbeddingToString(StaleEmbedding staleEmbedding) {
+        return "Book id: %s, %s id: %s, embedded: %s, actual: %s".formatted(
+                staleEmbedding.getBookId(),
+                staleEmbedding.getField(),
+                staleEmbedding.getReferenceId(),
+                staleEmbedding.getEmbeddedName(),
+                staleEmbedding.getActualName() == null ? "<deleted>" : staleEmbedding.getActualName());
+    }
 }
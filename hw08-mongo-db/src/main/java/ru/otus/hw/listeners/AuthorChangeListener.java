@@ -0,0 +1,20 @@
+package ru.otus.hw.listeners;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+import ru.otus.hw.models.Author;
+import ru.otus.hw.services.BookEmbeddingsService;
+
+@Component
+@RequiredArgsConstructor
+public class AuthorChangeListener extends AbstractMongoEventListener<Author> {
+
+    private final BookEmbeddingsService bookEmbeddingsService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Author> event) {
+        bookEmbeddingsService.authorChanged(event.getSource().getId());
+    }
+}
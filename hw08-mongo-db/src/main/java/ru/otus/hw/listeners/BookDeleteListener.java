@@ -1,28 +1,33 @@
 package ru.otus.hw.listeners;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
-import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
 import org.springframework.stereotype.Component;
 import ru.otus.hw.models.Book;
-import ru.otus.hw.repositories.CommentRepository;
+import ru.otus.hw.services.CommentCleanupService;
 
-@Slf4j
+import java.util.Collection;
+
+/**
+ * Queues comments of deleted books for removal. Deletes by other queries and deleteAll() are not seen here,
+ * their comments are removed by the orphan sweep of CommentCleanupService.
+ */
 @Component
 @RequiredArgsConstructor
 public class BookDeleteListener extends AbstractMongoEventListener<Book> {
 
-    private final CommentRepository commentRepository;
+    private final CommentCleanupService commentCleanupService;
 
     @Override
-    public void onBeforeDelete(BeforeDeleteEvent<Book> event) {
-        Object idObject = event.getDocument().get("_id");
-        if (idObject != null) {
-            String bookId = idObject.toString();
-            log.info("Deleting comments for book with id: {}", bookId);
-            commentRepository.deleteByBookId(bookId);
-            log.info("Comments deleted for book with id: {}", bookId);
+    public void onAfterDelete(AfterDeleteEvent<Book> event) {
+        // The event document is the delete query: { _id: id } or { _id: { $in: [ids] } }
+        Object idObject = event.getDocument() == null ? null : event.getDocument().get("_id");
+        if (idObject instanceof Document idQuery && idQuery.get("$in") instanceof Collection<?> ids) {
+            ids.forEach(id -> commentCleanupService.bookDeleted(id.toString()));
+        } else if (idObject != null && !(idObject instanceof Document)) {
+            commentCleanupService.bookDeleted(idObject.toString());
         }
     }
-}
\ No newline at end of file
+}
@@ -7,6 +7,4 @@ import java.util.List;
 
 public interface CommentRepository extends MongoRepository<Comment, String> {
     List<Comment> findByBookId(String bookId);
-    
-    void deleteByBookId(String bookId);
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package ru.otus.hw.services;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import ru.otus.hw.exceptions.EntityNotFoundException;
 import ru.otus.hw.models.Author;
 import ru.otus.hw.repositories.AuthorRepository;
 
@@ -16,4 +17,13 @@ public class AuthorServiceImpl implements AuthorService {
     public List<Author> findAll() {
         return authorRepository.findAll();
     }
+
+    // Books embedding the author are updated by BookEmbeddingsService after the save
+    @Override
+    public Author update(String id, String fullName) {
+        var author = authorRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Author with id %s not found".formatted(id)));
+        author.setFullName(fullName);
+        return authorRepository.save(author);
+    }
 }
@@ -0,0 +1,33 @@
+package ru.otus.hw.services;
+
+import ru.otus.hw.dto.StaleEmbedding;
+
+import java.util.List;
+
+/**
+ * Keeps the author and genre copies embedded into books in sync with the authors and genres collections.
+ * Changes are queued and applied to the books later, in one bulk write per batch.
+ * Only ids are queued, the names are read from the authors and genres collections when they are written.
+ */
+public interface BookEmbeddingsService {
+    void authorChanged(String authorId);
+
+    void genreChanged(String genreId);
+
+    /**
+     * Applies the queued changes to the books.
+     *
+     * @return the number of modified books
+     */
+    long propagateChanges();
+
+    List<StaleEmbedding> findStaleEmbeddings();
+
+    /**
+     * Finds stale embeddings and writes the actual author and genre names to every book embedding them.
+     * Copies of deleted authors and genres are reported but left as they are.
+     *
+     * @return the stale embeddings found before the repair
+     */
+    List<StaleEmbedding> repairStaleEmbeddings();
+}
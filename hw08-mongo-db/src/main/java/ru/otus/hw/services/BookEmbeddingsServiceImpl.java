@@ -0,0 +1,171 @@
+package ru.otus.hw.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.otus.hw.dto.StaleEmbedding;
+import ru.otus.hw.models.Author;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class BookEmbeddingsServiceImpl implements BookEmbeddingsService {
+    private static final String AUTHOR_FIELD = "author";
+
+    private static final String GENRES_FIELD = "genres";
+
+    private final MongoTemplate mongoTemplate;
+
+    // Only ids are queued: the names are read when they are written, so a propagation never writes a name
+    // older than the one in the authors and genres collections, and repeated renames cost one update
+    private final Set<String> changedAuthorIds = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> changedGenreIds = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void authorChanged(String authorId) {
+        changedAuthorIds.add(authorId);
+    }
+
+    @Override
+    public void genreChanged(String genreId) {
+        changedGenreIds.add(genreId);
+    }
+
+    // Runs from the scheduler and from repairStaleEmbeddings(). The runs are serialized, so names read later
+    // are also written later
+    @Override
+    @Scheduled(fixedDelayString = "${library.book-embeddings.propagation-delay:PT1S}")
+    public synchronized long propagateChanges() {
+        List<String> authorIds = drain(changedAuthorIds);
+        List<String> genreIds = drain(changedGenreIds);
+        if (authorIds.isEmpty() && genreIds.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            // One $in find per collection; ids of deleted authors and genres find nothing and are dropped
+            List<Author> authors = authorIds.isEmpty() ? List.of()
+                    : mongoTemplate.find(query(where("id").in(authorIds)), Author.class);
+            List<Genre> genres = genreIds.isEmpty() ? List.of()
+                    : mongoTemplate.find(query(where("id").in(genreIds)), Genre.class);
+            if (authors.isEmpty() && genres.isEmpty()) {
+                return 0;
+            }
+
+            // One updateMulti per changed author or genre, all of them sent to the server in a single bulk write
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class);
+            authors.forEach(author -> operations.updateMulti(
+                    query(where("author.id").is(author.getId())),
+                    new Update().set("author.fullName", author.getFullName())));
+            // A book contains a genre at most once, so the positional operator reaches the only matching element
+            genres.forEach(genre -> operations.updateMulti(
+                    query(where("genres.id").is(genre.getId())),
+                    new Update().set("genres.$.name", genre.getName())));
+            long modified = operations.execute().getModifiedCount();
+            log.info("Propagated {} author and {} genre changes to {} books", authors.size(), genres.size(), modified);
+            return modified;
+        } catch (RuntimeException e) {
+            changedAuthorIds.addAll(authorIds);
+            changedGenreIds.addAll(genreIds);
+            throw e;
+        }
+    }
+
+    // Queued changes are written before the application stops. Changes lost in a crash are found
+    // by the repair, on demand or on startup with library.book-embeddings.repair-on-startup
+    @PreDestroy
+    public void propagateQueuedChanges() {
+        try {
+            propagateChanges();
+        } catch (RuntimeException e) {
+            log.warn("Failed to propagate queued changes on shutdown", e);
+        }
+    }
+
+    @Override
+    public List<StaleEmbedding> repairStaleEmbeddings() {
+        List<StaleEmbedding> staleEmbeddings = findStaleEmbeddings();
+        // A copy of a deleted author or genre has no actual state to restore, it is only reported
+        staleEmbeddings.stream()
+                .filter(staleEmbedding -> staleEmbedding.getActualName() != null)
+                .forEach(staleEmbedding -> {
+                    if (AUTHOR_FIELD.equals(staleEmbedding.getField())) {
+                        changedAuthorIds.add(staleEmbedding.getReferenceId());
+                    } else {
+                        changedGenreIds.add(staleEmbedding.getReferenceId());
+                    }
+                });
+        propagateChanges();
+        return staleEmbeddings;
+    }
+
+    @Override
+    public List<StaleEmbedding> findStaleEmbeddings() {
+        Map<String, Author> authors = mongoTemplate.findAll(Author.class).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+        Map<String, Genre> genres = mongoTemplate.findAll(Genre.class).stream()
+                .collect(Collectors.toMap(Genre::getId, Function.identity()));
+
+        List<StaleEmbedding> staleEmbeddings = new ArrayList<>();
+        try (Stream<Book> books = mongoTemplate.stream(new Query(), Book.class)) {
+            books.forEach(book -> collectStaleEmbeddings(book, authors, genres, staleEmbeddings));
+        }
+        return staleEmbeddings;
+    }
+
+    private static void collectStaleEmbeddings(Book book, Map<String, Author> authors, Map<String, Genre> genres,
+                                               List<StaleEmbedding> staleEmbeddings) {
+        Author author = book.getAuthor();
+        if (author != null) {
+            Author actual = authors.get(author.getId());
+            String actualName = actual == null ? null : actual.getFullName();
+            if (!Objects.equals(author.getFullName(), actualName)) {
+                staleEmbeddings.add(new StaleEmbedding(book.getId(), AUTHOR_FIELD, author.getId(),
+                        author.getFullName(), actualName));
+            }
+        }
+        if (book.getGenres() == null) {
+            return;
+        }
+        for (Genre genre : book.getGenres()) {
+            Genre actual = genres.get(genre.getId());
+            String actualName = actual == null ? null : actual.getName();
+            if (!Objects.equals(genre.getName(), actualName)) {
+                staleEmbeddings.add(new StaleEmbedding(book.getId(), GENRES_FIELD, genre.getId(),
+                        genre.getName(), actualName));
+            }
+        }
+    }
+
+    private static List<String> drain(Set<String> ids) {
+        List<String> drained = new ArrayList<>();
+        for (String id : List.copyOf(ids)) {
+            if (ids.remove(id)) {
+                drained.add(id);
+            }
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.otus.hw.services;
+
+/**
+ * Removes comments of deleted books in the background.
+ */
+public interface CommentCleanupService {
+    void bookDeleted(String bookId);
+
+    /**
+     * Removes comments of the queued books, in batches of ids.
+     *
+     * @return the number of removed comments
+     */
+    long deleteCommentsOfDeletedBooks();
+
+    /**
+     * Removes comments whose book no longer exists, whatever way it was deleted.
+     *
+     * @return the number of removed comments
+     */
+    long deleteOrphanComments();
+}
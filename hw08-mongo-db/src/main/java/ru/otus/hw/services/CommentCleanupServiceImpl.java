@@ -0,0 +1,142 @@
+package ru.otus.hw.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import com.mongodb.DBRef;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Comment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class CommentCleanupServiceImpl implements CommentCleanupService {
+    // Ids per $in query, keeps every query well below the BSON document size limit
+    private static final int BATCH_SIZE = 1000;
+
+    // Comment.book is a DBRef, the id of the book is stored in its $id field (indexed as book_id)
+    private static final String BOOK_ID_FIELD = "book.$id";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Queue<String> deletedBookIds = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void bookDeleted(String bookId) {
+        deletedBookIds.add(bookId);
+    }
+
+    // A batch that fails goes back to the queue and is retried on the next run
+    @Override
+    @Scheduled(fixedDelayString = "${library.comment-cleanup.delay:PT1S}")
+    public long deleteCommentsOfDeletedBooks() {
+        long deleted = 0;
+        for (List<String> batch = nextBatch(); !batch.isEmpty(); batch = nextBatch()) {
+            try {
+                deleted += deleteComments(batch.stream().map(CommentCleanupServiceImpl::toStoredId).toList());
+            } catch (DataAccessException e) {
+                deletedBookIds.addAll(batch);
+                log.warn("Failed to delete comments of {} deleted books, retrying on the next run", batch.size(), e);
+                break;
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} comments of deleted books", deleted);
+        }
+        return deleted;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${library.comment-cleanup.orphan-sweep-delay:PT10M}")
+    public long deleteOrphanComments() {
+        long deleted = 0;
+        for (List<Object> page = nextCommentedBookIds(null); !page.isEmpty();
+                page = nextCommentedBookIds(page.get(page.size() - 1))) {
+            Set<Object> existingBookIds = existingBookIds(page);
+            List<Object> orphanedBookIds = page.stream()
+                    .filter(bookId -> !existingBookIds.contains(bookId))
+                    .toList();
+            if (!orphanedBookIds.isEmpty()) {
+                deleted += deleteComments(orphanedBookIds);
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} orphan comments", deleted);
+        }
+        return deleted;
+    }
+
+    // Keyset page over the book_id index: the next comments after the last seen book id, with their book ids
+    // deduplicated. Pages stay bounded in memory however many books have comments, unlike a distinct reply,
+    // which is a single document capped at 16MB. $id can't be used as a field path in an aggregation,
+    // so the ids are not grouped by the server
+    private List<Object> nextCommentedBookIds(Object lastBookId) {
+        Bson filter = lastBookId == null ? Filters.exists(BOOK_ID_FIELD) : Filters.gt(BOOK_ID_FIELD, lastBookId);
+        List<Object> bookIds = new ArrayList<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Comment.class))
+                .find(filter)
+                .projection(Projections.fields(Projections.include("book"), Projections.excludeId()))
+                .sort(Sorts.ascending(BOOK_ID_FIELD))
+                .limit(BATCH_SIZE)
+                .forEach(comment -> {
+                    Object bookId = bookIdOf(comment.get("book"));
+                    if (bookIds.isEmpty() || !bookIds.get(bookIds.size() - 1).equals(bookId)) {
+                        bookIds.add(bookId);
+                    }
+                });
+        return bookIds;
+    }
+
+    private Set<Object> existingBookIds(List<Object> bookIds) {
+        Set<Object> existingBookIds = new HashSet<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Book.class))
+                .find(Filters.in("_id", bookIds))
+                .projection(Projections.include("_id"))
+                .forEach(book -> existingBookIds.add(book.get("_id")));
+        return existingBookIds;
+    }
+
+    // The collection name is passed instead of the entity, so the stored ids are used as they are
+    private long deleteComments(Collection<Object> bookIds) {
+        return mongoTemplate.remove(query(where(BOOK_ID_FIELD).in(bookIds)),
+                mongoTemplate.getCollectionName(Comment.class)).getDeletedCount();
+    }
+
+    private List<String> nextBatch() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        String bookId;
+        while (batch.size() < BATCH_SIZE && (bookId = deletedBookIds.poll()) != null) {
+            batch.add(bookId);
+        }
+        return batch;
+    }
+
+    private static Object toStoredId(String bookId) {
+        return ObjectId.isValid(bookId) ? new ObjectId(bookId) : bookId;
+    }
+
+    // The driver returns the reference either as a DBRef or as a plain {$ref, $id} document
+    private static Object bookIdOf(Object book) {
+        return book instanceof DBRef dbRef ? dbRef.getId() : ((Document) book).get("$id");
+    }
+}
@@ -6,4 +6,6 @@ import java.util.List;
 
 public interface GenreService {
     List<Genre> findAll();
+
+    Genre update(String id, String name);
 }
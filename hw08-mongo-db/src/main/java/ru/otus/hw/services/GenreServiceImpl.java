@@ -2,6 +2,7 @@ package ru.otus.hw.services;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import ru.otus.hw.exceptions.EntityNotFoundException;
 import ru.otus.hw.models.Genre;
 import ru.otus.hw.repositories.GenreRepository;
 
@@ -16,4 +17,13 @@ public class GenreServiceImpl implements GenreService {
     public List<Genre> findAll() {
         return genreRepository.findAll();
     }
+
+    // Books embedding the genre are updated by BookEmbeddingsService after the save
+    @Override
+    public Genre update(String id, String name) {
+        var genre = genreRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Genre with id %s not found".formatted(id)));
+        genre.setName(name);
+        return genreRepository.save(genre);
+    }
 }
@@ -8,6 +8,7 @@ import org.springframework.context.annotation.Import;
 import ru.otus.hw.config.ConditionalMongoTestConfig;
 import ru.otus.hw.listeners.BookDeleteListener;
 import ru.otus.hw.models.Author;
+import ru.otus.hw.services.CommentCleanupServiceImpl;
 
 import java.util.List;
 
@@ -15,7 +16,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("AuthorRepository should")
 @DataMongoTest
-@Import({ConditionalMongoTestConfig.class, BookDeleteListener.class})
+@Import({ConditionalMongoTestConfig.class, BookDeleteListener.class,
+        CommentCleanupServiceImpl.class})
 class AuthorRepositoryTest {
 
     @Autowired
@@ -12,6 +12,7 @@ import ru.otus.hw.listeners.BookDeleteListener;
 import ru.otus.hw.models.Author;
 import ru.otus.hw.models.Book;
 import ru.otus.hw.models.Genre;
+import ru.otus.hw.services.CommentCleanupServiceImpl;
 
 import java.util.List;
 
@@ -19,7 +20,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("BookRepository should")
 @DataMongoTest
-@Import({ConditionalMongoTestConfig.class, BookDeleteListener.class})
+@Import({ConditionalMongoTestConfig.class, BookDeleteListener.class,
+        CommentCleanupServiceImpl.class})
 class BookRepositoryTest {
 
     @Autowired
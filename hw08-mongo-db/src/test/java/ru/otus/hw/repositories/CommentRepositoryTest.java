@@ -11,6 +11,7 @@ import ru.otus.hw.models.Author;
 import ru.otus.hw.models.Book;
 import ru.otus.hw.models.Comment;
 import ru.otus.hw.models.Genre;
+import ru.otus.hw.services.CommentCleanupServiceImpl;
 
 import java.util.List;
 
@@ -18,7 +19,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("CommentRepository should")
 @DataMongoTest
-@Import({ConditionalMongoTestConfig.class, BookDeleteListener.class})
+@Import({ConditionalMongoTestConfig.class, BookDeleteListener.class,
+        CommentCleanupServiceImpl.class})
 class CommentRepositoryTest {
 
     @Autowired
@@ -71,10 +73,8 @@ class CommentRepositoryTest {
         commentRepository.saveAll(List.of(comment1, comment2));
 
         // Act
+        // saveAll assigns the ids to comment1 and comment2, the order of found comments is not defined
         List<Comment> comments = commentRepository.findByBookId(book.getId());
-        // Set IDs for expected comments to match the actual comments
-        comment1.setId(comments.get(0).getId());
-        comment2.setId(comments.get(1).getId());
 
         // Assert
         assertThat(comments).isNotEmpty();
@@ -8,6 +8,7 @@ import org.springframework.context.annotation.Import;
 import ru.otus.hw.config.ConditionalMongoTestConfig;
 import ru.otus.hw.listeners.BookDeleteListener;
 import ru.otus.hw.models.Genre;
+import ru.otus.hw.services.CommentCleanupServiceImpl;
 
 import java.util.List;
 import java.util.Set;
@@ -16,7 +17,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("GenreRepository should")
 @DataMongoTest
-@Import({ConditionalMongoTestConfig.class, BookDeleteListener.class})
+@Import({ConditionalMongoTestConfig.class, BookDeleteListener.class,
+        CommentCleanupServiceImpl.class})
 class GenreRepositoryTest {
 
     @Autowired
@@ -0,0 +1,194 @@
+package ru.otus.hw.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import ru.otus.hw.config.ConditionalMongoTestConfig;
+import ru.otus.hw.dto.StaleEmbedding;
+import ru.otus.hw.listeners.AuthorChangeListener;
+import ru.otus.hw.listeners.GenreChangeListener;
+import ru.otus.hw.models.Author;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Genre;
+import ru.otus.hw.repositories.AuthorRepository;
+import ru.otus.hw.repositories.BookRepository;
+import ru.otus.hw.repositories.GenreRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@DisplayName("BookEmbeddingsService should")
+@DataMongoTest
+@Import({ConditionalMongoTestConfig.class, BookEmbeddingsServiceImpl.class,
+        AuthorChangeListener.class, GenreChangeListener.class})
+class BookEmbeddingsServiceTest {
+
+    @Autowired
+    private BookEmbeddingsService bookEmbeddingsService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @DisplayName("propagate renamed author to every book embedding it")
+    @Test
+    void shouldPropagateRenamedAuthor() {
+        // Arrange
+        Author author = authorRepository.save(new Author(null, "Old Author"));
+        Author otherAuthor = authorRepository.save(new Author(null, "Other Author"));
+        Genre genre = genreRepository.save(new Genre(null, "Genre"));
+        Book book1 = bookRepository.save(new Book(null, "Book 1", author, List.of(genre)));
+        Book book2 = bookRepository.save(new Book(null, "Book 2", author, List.of(genre)));
+        Book otherBook = bookRepository.save(new Book(null, "Other Book", otherAuthor, List.of(genre)));
+        bookEmbeddingsService.propagateChanges();
+
+        // Act - rename directly through repository (should be queued by AuthorChangeListener)
+        author.setFullName("New Author");
+        authorRepository.save(author);
+        bookEmbeddingsService.propagateChanges();
+
+        // Assert
+        assertThat(bookRepository.findById(book1.getId()).orElseThrow().getAuthor().getFullName())
+                .isEqualTo("New Author");
+        assertThat(bookRepository.findById(book2.getId()).orElseThrow().getAuthor().getFullName())
+                .isEqualTo("New Author");
+        assertThat(bookRepository.findById(otherBook.getId()).orElseThrow().getAuthor().getFullName())
+                .isEqualTo("Other Author");
+    }
+
+    @DisplayName("propagate renamed genre only to the matching element of book genres")
+    @Test
+    void shouldPropagateRenamedGenre() {
+        // Arrange
+        Author author = authorRepository.save(new Author(null, "Author"));
+        Genre genre = genreRepository.save(new Genre(null, "Old Genre"));
+        Genre otherGenre = genreRepository.save(new Genre(null, "Other Genre"));
+        Book book1 = bookRepository.save(new Book(null, "Book 1", author, List.of(otherGenre, genre)));
+        Book book2 = bookRepository.save(new Book(null, "Book 2", author, List.of(genre)));
+        bookEmbeddingsService.propagateChanges();
+
+        // Act
+        genre.setName("New Genre");
+        genreRepository.save(genre);
+        bookEmbeddingsService.propagateChanges();
+
+        // Assert
+        assertThat(bookRepository.findById(book1.getId()).orElseThrow().getGenres())
+                .extracting(Genre::getName)
+                .containsExactly("Other Genre", "New Genre");
+        assertThat(bookRepository.findById(book2.getId()).orElseThrow().getGenres())
+                .extracting(Genre::getName)
+                .containsExactly("New Genre");
+    }
+
+    @DisplayName("write the current name of a queued author, not the name it had when queued")
+    @Test
+    void shouldPropagateCurrentNameOfQueuedAuthor() {
+        // Arrange
+        Author author = authorRepository.save(new Author(null, "Old Author"));
+        Genre genre = genreRepository.save(new Genre(null, "Genre"));
+        Book book = bookRepository.save(new Book(null, "Book", author, List.of(genre)));
+        bookEmbeddingsService.propagateChanges();
+        author.setFullName("Queued Author");
+        authorRepository.save(author);
+        // An update query publishes no save events, the author stays queued with its id only
+        mongoTemplate.updateFirst(query(where("id").is(author.getId())), Update.update("fullName", "Current Author"),
+                Author.class);
+
+        // Act
+        bookEmbeddingsService.propagateChanges();
+
+        // Assert
+        assertThat(bookRepository.findById(book.getId()).orElseThrow().getAuthor().getFullName())
+                .isEqualTo("Current Author");
+    }
+
+    @DisplayName("report embeddings that are stale until the changes are propagated")
+    @Test
+    void shouldFindStaleEmbeddings() {
+        // Arrange
+        Author author = authorRepository.save(new Author(null, "Old Author"));
+        Genre genre = genreRepository.save(new Genre(null, "Old Genre"));
+        Book book = bookRepository.save(new Book(null, "Book", author, List.of(genre)));
+        bookEmbeddingsService.propagateChanges();
+        author.setFullName("New Author");
+        authorRepository.save(author);
+        genre.setName("New Genre");
+        genreRepository.save(genre);
+
+        // Act
+        List<StaleEmbedding> staleBeforePropagation = staleEmbeddingsOf(book);
+        bookEmbeddingsService.propagateChanges();
+        List<StaleEmbedding> staleAfterPropagation = staleEmbeddingsOf(book);
+
+        // Assert
+        assertThat(staleBeforePropagation).containsExactlyInAnyOrder(
+                new StaleEmbedding(book.getId(), "author", author.getId(), "Old Author", "New Author"),
+                new StaleEmbedding(book.getId(), "genres", genre.getId(), "Old Genre", "New Genre"));
+        assertThat(staleAfterPropagation).isEmpty();
+    }
+
+    @DisplayName("repair a book saved from an outdated copy of its author")
+    @Test
+    void shouldRepairBookSavedFromStaleCopy() {
+        // Arrange
+        Author author = authorRepository.save(new Author(null, "New Author"));
+        Genre genre = genreRepository.save(new Genre(null, "Genre"));
+        bookEmbeddingsService.propagateChanges();
+        Book book = bookRepository.save(new Book(null, "Book", new Author(author.getId(), "Old Author"),
+                List.of(genre)));
+
+        // Act
+        List<StaleEmbedding> staleEmbeddings = bookEmbeddingsService.repairStaleEmbeddings();
+
+        // Assert
+        assertThat(staleEmbeddings).contains(
+                new StaleEmbedding(book.getId(), "author", author.getId(), "Old Author", "New Author"));
+        assertThat(bookRepository.findById(book.getId()).orElseThrow().getAuthor().getFullName())
+                .isEqualTo("New Author");
+        assertThat(staleEmbeddingsOf(book)).isEmpty();
+    }
+
+    @DisplayName("repair a change that was never queued, like one lost on shutdown")
+    @Test
+    void shouldRepairLostChange() {
+        // Arrange
+        Author author = authorRepository.save(new Author(null, "Author"));
+        Genre genre = genreRepository.save(new Genre(null, "Old Genre"));
+        Book book = bookRepository.save(new Book(null, "Book", author, List.of(genre)));
+        bookEmbeddingsService.propagateChanges();
+        // An update query publishes no save events, so the listener doesn't queue the rename
+        mongoTemplate.updateFirst(query(where("id").is(genre.getId())), Update.update("name", "New Genre"),
+                Genre.class);
+
+        // Act
+        bookEmbeddingsService.repairStaleEmbeddings();
+
+        // Assert
+        assertThat(bookRepository.findById(book.getId()).orElseThrow().getGenres())
+                .extracting(Genre::getName)
+                .containsExactly("New Genre");
+    }
+
+    // Other tests share the database, so only the embeddings of the given book are checked
+    private List<StaleEmbedding> staleEmbeddingsOf(Book book) {
+        return bookEmbeddingsService.findStaleEmbeddings().stream()
+                .filter(staleEmbedding -> staleEmbedding.getBookId().equals(book.getId()))
+                .toList();
+    }
+}
@@ -22,7 +22,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("BookDeleteListener should")
 @DataMongoTest
-@Import({ConditionalMongoTestConfig.class, BookDeleteListener.class})
+@Import({ConditionalMongoTestConfig.class, BookDeleteListener.class,
+        CommentCleanupServiceImpl.class})
 class BookServiceTest {
 
     @Autowired
@@ -37,6 +38,9 @@ class BookServiceTest {
     @Autowired
     private GenreRepository genreRepository;
 
+    @Autowired
+    private CommentCleanupService commentCleanupService;
+
     @DisplayName("automatically delete comments when book is deleted")
     @Test
     void shouldDeleteCommentsWhenBookIsDeleted() {
@@ -61,12 +65,14 @@ class BookServiceTest {
 
         // Act - delete book directly through repository (should trigger BookDeleteListener)
         bookRepository.deleteById(book.getId());
+        // Comments are removed by the cleanup queue, drained here instead of waiting for the schedule
+        commentCleanupService.deleteCommentsOfDeletedBooks();
 
         // Assert
         // Book should be deleted
         assertThat(bookRepository.findById(book.getId())).isEmpty();
         
-        // Comments for the deleted book should also be deleted by BookDeleteListener
+        // Comments for the deleted book should also be deleted by the queued cleanup
         assertThat(commentRepository.findByBookId(book.getId())).isEmpty();
         
         // Other book and its comments should remain unaffected
@@ -0,0 +1,144 @@
+package ru.otus.hw.services;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import ru.otus.hw.config.ConditionalMongoTestConfig;
+import ru.otus.hw.listeners.BookDeleteListener;
+import ru.otus.hw.models.Author;
+import ru.otus.hw.models.Book;
+import ru.otus.hw.models.Comment;
+import ru.otus.hw.models.Genre;
+import ru.otus.hw.repositories.AuthorRepository;
+import ru.otus.hw.repositories.BookRepository;
+import ru.otus.hw.repositories.CommentRepository;
+import ru.otus.hw.repositories.GenreRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@DisplayName("CommentCleanupService should")
+@DataMongoTest
+@Import({ConditionalMongoTestConfig.class, BookDeleteListener.class, CommentCleanupServiceImpl.class})
+class CommentCleanupServiceTest {
+
+    @Autowired
+    private CommentCleanupService commentCleanupService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @SpyBean
+    private MongoTemplate mongoTemplate;
+
+    @DisplayName("delete comments of all books deleted by one query in one batch")
+    @Test
+    void shouldDeleteCommentsOfBooksDeletedTogether() {
+        // Arrange
+        Book book1 = saveBookWithComment("Book 1");
+        Book book2 = saveBookWithComment("Book 2");
+        Book keptBook = saveBookWithComment("Kept Book");
+
+        // Act - one delete query with $in over the ids, seen by BookDeleteListener as a single event
+        bookRepository.deleteAllById(List.of(book1.getId(), book2.getId()));
+        long deleted = commentCleanupService.deleteCommentsOfDeletedBooks();
+
+        // Assert
+        assertThat(deleted).isEqualTo(2);
+        assertThat(commentRepository.findByBookId(book1.getId())).isEmpty();
+        assertThat(commentRepository.findByBookId(book2.getId())).isEmpty();
+        assertThat(commentRepository.findByBookId(keptBook.getId())).hasSize(1);
+    }
+
+    @DisplayName("sweep comments of books deleted without BookDeleteListener")
+    @Test
+    void shouldDeleteOrphanComments() {
+        // Arrange
+        Book deletedBook = saveBookWithComment("Deleted Book");
+        Book keptBook = saveBookWithComment("Kept Book");
+
+        // Act - removal by collection name publishes no Book events, like deleteAll()
+        mongoTemplate.remove(query(where("_id").is(new ObjectId(deletedBook.getId()))),
+                mongoTemplate.getCollectionName(Book.class));
+        commentCleanupService.deleteOrphanComments();
+
+        // Assert
+        assertThat(commentRepository.findByBookId(deletedBook.getId())).isEmpty();
+        assertThat(commentRepository.findByBookId(keptBook.getId())).hasSize(1);
+    }
+
+    @DisplayName("retry a batch of deleted books whose comments failed to be removed")
+    @Test
+    void shouldRequeueFailedBatch() {
+        // Arrange
+        Book book = saveBookWithComment("Book");
+        bookRepository.deleteById(book.getId());
+        doThrow(new DataAccessResourceFailureException("Connection lost"))
+                .doCallRealMethod()
+                .when(mongoTemplate).remove(any(Query.class), anyString());
+
+        // Act
+        long deletedOnFailure = commentCleanupService.deleteCommentsOfDeletedBooks();
+        long deletedOnRetry = commentCleanupService.deleteCommentsOfDeletedBooks();
+
+        // Assert
+        assertThat(deletedOnFailure).isZero();
+        assertThat(deletedOnRetry).isEqualTo(1);
+        assertThat(commentRepository.findByBookId(book.getId())).isEmpty();
+    }
+
+    @DisplayName("sweep every comment of each orphaned book exactly once")
+    @Test
+    void shouldDeleteAllCommentsOfSeveralOrphanedBooks() {
+        // Arrange
+        Book deletedBook1 = saveBookWithComments("Deleted Book 1", 2);
+        Book keptBook = saveBookWithComments("Kept Book", 3);
+        Book deletedBook2 = saveBookWithComments("Deleted Book 2", 2);
+        mongoTemplate.remove(query(where("_id").in(new ObjectId(deletedBook1.getId()),
+                new ObjectId(deletedBook2.getId()))), mongoTemplate.getCollectionName(Book.class));
+
+        // Act
+        long deleted = commentCleanupService.deleteOrphanComments();
+
+        // Assert
+        assertThat(deleted).isEqualTo(4);
+        assertThat(commentRepository.findByBookId(keptBook.getId())).hasSize(3);
+        assertThat(commentCleanupService.deleteOrphanComments()).isZero();
+    }
+
+    private Book saveBookWithComment(String title) {
+        return saveBookWithComments(title, 1);
+    }
+
+    private Book saveBookWithComments(String title, int commentsCount) {
+        Author author = authorRepository.save(new Author(null, "Author"));
+        Genre genre = genreRepository.save(new Genre(null, "Genre"));
+        Book book = bookRepository.save(new Book(null, title, author, List.of(genre)));
+        for (int i = 1; i <= commentsCount; i++) {
+            commentRepository.save(new Comment(null, "Comment " + i + " on " + title, book));
+        }
+        return book;
+    }
+}
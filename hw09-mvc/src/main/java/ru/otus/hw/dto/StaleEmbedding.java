@@ -0,0 +1,22 @@
+package ru.otus.hw.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StaleEmbedding {
+    private String bookId;
+
+    // "author" or "genres"
+    private String field;
+
+    private String referenceId;
+
+    private String embeddedName;
+
+    // null when the referenced author or genre no longer exists
+    private String actualName;
+}
@@ -0,0 +1,26 @@
+package ru.otus.hw.listeners;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.otus.hw.services.BookEmbeddingsService;
+
+// Compares every book with the authors and genres collections, so it is off by default.
+// Turned on after a crash, it repairs changes that were queued but never propagated
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "library.book-embeddings.repair-on-startup", havingValue = "true")
+public class StaleEmbeddingsStartupRepair {
+
+    private final BookEmbeddingsService bookEmbeddingsService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairStaleEmbeddings() {
+        int stale = bookEmbeddingsService.repairStaleEmbeddings().size();
+        log.info("Found {} stale embeddings on startup", stale);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.otus.hw.listeners;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+import ru.otus.hw.models.Genre;
+import ru.otus.hw.services.BookEmbeddingsService;
+
+@Component
+@RequiredArgsConstructor
+public class GenreChangeListener extends AbstractMongoEventListener<Genre> {
+
+    private final BookEmbeddingsService bookEmbeddingsService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Genre> event) {
+        bookEmbeddingsService.genreChanged(event.getSource().getId());
+    }
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.List;
@@ -12,6 +13,9 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "books")
+// Lookups of the books embedding an author or a genre, used when their changes are propagated
+@CompoundIndex(name = "author_id", def = "{'author._id': 1}")
+@CompoundIndex(name = "genres_id", def = "{'genres._id': 1}")
 public class Book {
     @Id
     private String id;
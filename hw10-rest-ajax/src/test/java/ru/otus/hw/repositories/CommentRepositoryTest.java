@@ -70,10 +70,8 @@ class CommentRepositoryTest {
         commentRepository.saveAll(List.of(comment1, comment2));
 
         // Act
+        // saveAll assigns the ids to comment1 and comment2, the order of found comments is not defined
         List<Comment> comments = commentRepository.findByBookId(book.getId());
-        // Set IDs for expected comments to match the actual comments
-        comment1.setId(comments.get(0).getId());
-        comment2.setId(comments.get(1).getId());
 
         // Assert
         assertThat(comments).isNotEmpty();